@@ -15,6 +15,7 @@ open module ultimategdbot {
     requires java.sql;
     requires jdash.events;
     requires jdash.graphics;
+    requires jdk.httpserver;
     requires jdk.management;
     requires org.mongodb.driver.reactivestreams;
     requires org.immutables.criteria.common;
@@ -25,6 +25,7 @@ import org.jspecify.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import ultimategdbot.Strings;
 import ultimategdbot.event.GDEventService;
 import ultimategdbot.event.ManualEventProducer;
@@ -32,9 +33,12 @@ import ultimategdbot.service.EmojiService;
 import ultimategdbot.service.PrivilegeFactory;
 import ultimategdbot.util.GDLevels;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ultimategdbot.util.Interactions.paginationAndConfirmButtons;
@@ -55,6 +59,11 @@ import static ultimategdbot.util.Interactions.paginationAndConfirmButtons;
                         description = "Dispatch new awarded events for all levels that have been rated after the " +
                                 "specified one.",
                         listener = GDEventsCommand.DispatchAll.class
+                ),
+                @Subcommand(
+                        name = "replay-dead-letters",
+                        description = "Dispatch again the events that previously failed for good.",
+                        listener = GDEventsCommand.ReplayDeadLetters.class
                 )
         }
 )
@@ -201,6 +210,9 @@ public final class GDEventsCommand {
     @RdiService
     public static final class DispatchAll implements ChatInputInteractionListener {
 
+        private static final int PAGE_PREFETCH = 4;
+        private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(2);
+
         private final GDClient gdClient;
         private final ManualEventProducer eventProducer;
         private final EmojiService emoji;
@@ -240,15 +252,40 @@ public final class GDEventsCommand {
                     return Mono.error(new InteractionFailedException(
                             ctx.translate(Strings.GD, "error_invalid_max_page")));
                 }
-                return Flux.range(0, (int) (options.maxPage + 1))
-                        .concatMap(n -> n <= options.maxPage
-                                ? gdClient.searchLevels(LevelSearchMode.AWARDED, null, null, n)
-                                : Mono.error(new InteractionFailedException(
+                final var pagesLoaded = new AtomicInteger();
+                final var levelsFound = new AtomicInteger();
+                // Pages are fetched ahead with bounded concurrency but emitted in order, so that the search stops
+                // (and cancels the pages still loading) as soon as the level is reached
+                final var loadEvents = Flux.range(0, options.maxPage.intValue())
+                        .flatMapSequential(n -> gdClient.searchLevels(LevelSearchMode.AWARDED, null, null, n)
+                                .collectList()
+                                .doOnNext(__ -> pagesLoaded.incrementAndGet()), PAGE_PREFETCH, 1)
+                        .concatMapIterable(Function.identity())
+                        .concatWith(Mono.error(() -> new InteractionFailedException(
                                 ctx.translate(Strings.GD, "error_max_page_reached", options.maxPage))))
                         .takeWhile(level -> level.id() != options.fromLevelId)
+                        .doOnNext(__ -> levelsFound.incrementAndGet())
                         .map(AwardedLevelAdd::new)
                         .collectList()
                         .doOnNext(Collections::reverse)
+                        .cache();
+                final var progress = ctx.event()
+                        .createFollowup(ctx.translate(Strings.GD, "dispatch_progress", 0, 0))
+                        .flatMap(message -> Flux.interval(PROGRESS_INTERVAL)
+                                .takeUntilOther(loadEvents.onErrorResume(e -> Mono.empty()))
+                                .concatMap(__ -> ctx.event().editFollowup(message.getId())
+                                        .withContentOrNull(ctx.translate(Strings.GD, "dispatch_progress",
+                                                pagesLoaded.get(), levelsFound.get())))
+                                // The final text reflects whether the search succeeded or failed
+                                .then(loadEvents.map(__ -> "dispatch_progress_done")
+                                        .onErrorReturn("dispatch_progress_failed"))
+                                .flatMap(key -> ctx.event().editFollowup(message.getId())
+                                        .withContentOrNull(ctx.translate(Strings.GD, key,
+                                                pagesLoaded.get(), levelsFound.get()))))
+                        .onErrorResume(e -> Mono.empty());
+                // Errors of the search are only propagated once the progress message is finished
+                return Mono.when(progress, loadEvents.onErrorResume(e -> Mono.empty()))
+                        .then(loadEvents)
                         .flatMap(events -> {
                             final var pageCount = (events.size() - 1) / 10 + 1;
                             final var okId = UUID.randomUUID().toString();
@@ -258,12 +295,9 @@ public final class GDEventsCommand {
                                             paginateEvents(ctx, state, events, okId, cancelId))),
                                     Mono.firstWithValue(ctx.awaitButtonClick(okId), ctx.awaitButtonClick(cancelId))
                                             .filter(okId::equals)
-                                            .flatMap(__ -> {
-                                                events.forEach(eventProducer::submit);
-                                                return ctx.event().createFollowup(emoji.get("success") + ' ' +
-                                                        ctx.translate(Strings.GD, "dispatch_success_multi",
-                                                                events.size()));
-                                            }));
+                                            .flatMap(__ -> ctx.event().createFollowup(emoji.get("success") + ' ' +
+                                                    ctx.translate(Strings.GD, "dispatch_success_multi",
+                                                            eventProducer.submitAll(events)))));
                         });
             });
         }
@@ -296,4 +330,34 @@ public final class GDEventsCommand {
             Long maxPage = 10L;
         }
     }
+
+    @RdiService
+    public static final class ReplayDeadLetters implements ChatInputInteractionListener {
+
+        private final ManualEventProducer eventProducer;
+        private final EmojiService emoji;
+        private final PrivilegeFactory privilegeFactory;
+
+        @RdiFactory
+        public ReplayDeadLetters(ManualEventProducer eventProducer, EmojiService emoji,
+                                 PrivilegeFactory privilegeFactory) {
+            this.eventProducer = eventProducer;
+            this.emoji = emoji;
+            this.privilegeFactory = privilegeFactory;
+        }
+
+        @Override
+        public Publisher<?> run(ChatInputInteractionContext ctx) {
+            return Mono.fromCallable(eventProducer::replayDeadLetters)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(replayed -> ctx.event().createFollowup(emoji.get("success") + ' ' +
+                            ctx.translate(Strings.GD, "replay_dead_letters_success", replayed,
+                                    eventProducer.deadLetterCount())));
+        }
+
+        @Override
+        public Privilege privilege() {
+            return privilegeFactory.botOwner();
+        }
+    }
 }
@@ -8,13 +8,10 @@ import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
 import org.reactivestreams.Publisher;
 import ultimategdbot.Strings;
-import ultimategdbot.database.GdMod;
 import ultimategdbot.database.GdModDao;
 import ultimategdbot.service.EmojiService;
 import ultimategdbot.service.OutputPaginator;
 
-import java.util.Comparator;
-
 @RdiService
 @ChatInputCommand(name = "mod-list", description = "Displays the full list of last known Geometry Dash moderators.")
 public final class ModListCommand implements ChatInputInteractionListener {
@@ -40,14 +37,9 @@ public final class ModListCommand implements ChatInputInteractionListener {
 
     @Override
     public Publisher<?> run(ChatInputInteractionContext ctx) {
-        return gdModDao.getAll().collectList()
-                .flatMap(modList -> paginator.paginate(ctx,
-                        modList.stream()
-                                .sorted(Comparator.comparingInt(GdMod::elder).reversed()
-                                        .thenComparing(GdMod::name, String.CASE_INSENSITIVE_ORDER))
-                                .map(gdMod -> emoji.get(badge(gdMod.elder())) + ' ' + Markdown.bold(gdMod.name()))
-                                .toList(),
-                        content -> "**__" + ctx.translate(Strings.GD, "mod_list") + "__\n**" +
-                                ctx.translate(Strings.GD, "modlist_intro") + "\n\n" + content));
+        return paginator.paginate(ctx, gdModDao.count(), (offset, limit) -> gdModDao.getPage(offset, limit)
+                        .map(gdMod -> emoji.get(badge(gdMod.elder())) + ' ' + Markdown.bold(gdMod.name())),
+                content -> "**__" + ctx.translate(Strings.GD, "mod_list") + "__\n**" +
+                        ctx.translate(Strings.GD, "modlist_intro") + "\n\n" + content);
     }
 }
@@ -2,10 +2,14 @@ package ultimategdbot.command;
 
 import botrino.api.i18n.Translator;
 import botrino.api.util.DurationUtils;
+import botrino.api.util.Markdown;
 import botrino.interaction.annotation.ChatInputCommand;
 import botrino.interaction.annotation.PrivateCommand;
+import botrino.interaction.annotation.Subcommand;
 import botrino.interaction.context.ChatInputInteractionContext;
 import botrino.interaction.listener.ChatInputInteractionListener;
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
+import com.github.alex1304.rdi.finder.annotation.RdiService;
 import com.sun.management.GarbageCollectionNotificationInfo;
 import discord4j.core.spec.EmbedCreateSpec;
 import org.reactivestreams.Publisher;
@@ -13,6 +17,12 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 import ultimategdbot.Strings;
+import ultimategdbot.event.GDEventService;
+import ultimategdbot.event.ModAuditService;
+import ultimategdbot.metrics.Gauge;
+import ultimategdbot.metrics.Metrics;
+import ultimategdbot.metrics.Timer;
+import ultimategdbot.service.InteractionLogService;
 import ultimategdbot.util.SystemUnit;
 
 import javax.management.NotificationEmitter;
@@ -21,64 +31,188 @@ import javax.management.openmbean.CompositeData;
 import java.lang.management.ManagementFactory;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @PrivateCommand
-@ChatInputCommand(name = "runtime", description = "Display runtime information on the bot.")
-public final class RuntimeCommand implements ChatInputInteractionListener {
+@ChatInputCommand(
+        name = "runtime",
+        description = "Display runtime information on the bot.",
+        subcommands = {
+                @Subcommand(
+                        name = "info",
+                        description = "Display general runtime information on the bot.",
+                        listener = RuntimeCommand.Info.class
+                ),
+                @Subcommand(
+                        name = "metrics",
+                        description = "Display latency metrics of commands, GD requests, Discord and the database.",
+                        listener = RuntimeCommand.MetricsSummary.class
+                )
+        }
+)
+public final class RuntimeCommand {
 
-    public RuntimeCommand() {
-        MemoryStats.start();
-    }
+    @RdiService
+    public static final class Info implements ChatInputInteractionListener {
 
-    private static Mono<EmbedField> uptime(Translator tr) {
-        return Mono.just(new EmbedField(tr.translate(Strings.GENERAL, "uptime"),
-                tr.translate(Strings.GENERAL, "uptime_value", DurationUtils.format(
-                        Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime()).withNanos(0)))));
-    }
+        private final GDEventService gdEventService;
+        private final InteractionLogService interactionLogService;
+        private final ModAuditService modAuditService;
 
-    private static Mono<EmbedField> memory(ChatInputInteractionContext ctx) {
-        return MemoryStats.getStats()
-                .map(memStats -> {
-                    var total = memStats.totalMemory;
-                    var max = memStats.maxMemory;
-                    var used = memStats.usedMemory;
-                    var str = ctx.translate(Strings.GENERAL, "max_ram") + ' ' + SystemUnit.format(max) + "\n" +
-                            ctx.translate(Strings.GENERAL, "jvm_size") + ' ' + SystemUnit.format(total) +
-                            " (" + String.format("%.2f", total * 100 / (double) max) + "%)\n" +
-                            ctx.translate(Strings.GENERAL, "gc_run") + ' ' +
-                            memStats.elapsedSinceLastGC()
-                                    .map(t -> ctx.translate(Strings.GENERAL, "ago", DurationUtils.format(t)))
-                                    .orElse("N/A") +
-                            "\n" +
-                            ctx.translate(Strings.GENERAL, "ram_after_gc") + ' ' + SystemUnit.format(used) +
-                            " (" + String.format("%.2f", used * 100 / (double) max) + "%)\n";
-                    return new EmbedField(ctx.translate(Strings.GENERAL, "memory_usage"), str);
-                });
-    }
+        @RdiFactory
+        public Info(GDEventService gdEventService, InteractionLogService interactionLogService,
+                    ModAuditService modAuditService) {
+            this.gdEventService = gdEventService;
+            this.interactionLogService = interactionLogService;
+            this.modAuditService = modAuditService;
+            MemoryStats.start();
+        }
+
+        private static Mono<EmbedField> uptime(Translator tr) {
+            return Mono.just(new EmbedField(tr.translate(Strings.GENERAL, "uptime"),
+                    tr.translate(Strings.GENERAL, "uptime_value", DurationUtils.format(
+                            Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime()).withNanos(0)))));
+        }
 
-    private static Mono<EmbedField> shardInfo(ChatInputInteractionContext ctx) {
-        var shardInfo = ctx.event().getShardInfo();
-        return Mono.just(new EmbedField(ctx.translate(Strings.GENERAL, "gateway_sharding_info"),
-                ctx.translate(Strings.GENERAL, "shard_index", shardInfo.getIndex()) + '\n'
-                        + ctx.translate(Strings.GENERAL, "shard_count", shardInfo.getCount())));
+        private static Mono<EmbedField> memory(ChatInputInteractionContext ctx) {
+            return MemoryStats.getStats()
+                    .map(memStats -> {
+                        var total = memStats.totalMemory;
+                        var max = memStats.maxMemory;
+                        var used = memStats.usedMemory;
+                        var str = ctx.translate(Strings.GENERAL, "max_ram") + ' ' + SystemUnit.format(max) + "\n" +
+                                ctx.translate(Strings.GENERAL, "jvm_size") + ' ' + SystemUnit.format(total) +
+                                " (" + String.format("%.2f", total * 100 / (double) max) + "%)\n" +
+                                ctx.translate(Strings.GENERAL, "gc_run") + ' ' +
+                                memStats.elapsedSinceLastGC()
+                                        .map(t -> ctx.translate(Strings.GENERAL, "ago", DurationUtils.format(t)))
+                                        .orElse("N/A") +
+                                "\n" +
+                                ctx.translate(Strings.GENERAL, "ram_after_gc") + ' ' + SystemUnit.format(used) +
+                                " (" + String.format("%.2f", used * 100 / (double) max) + "%)\n";
+                        return new EmbedField(ctx.translate(Strings.GENERAL, "memory_usage"), str);
+                    });
+        }
+
+        private static Mono<EmbedField> shardInfo(ChatInputInteractionContext ctx) {
+            var shardInfo = ctx.event().getShardInfo();
+            return Mono.just(new EmbedField(ctx.translate(Strings.GENERAL, "gateway_sharding_info"),
+                    ctx.translate(Strings.GENERAL, "shard_index", shardInfo.getIndex()) + '\n'
+                            + ctx.translate(Strings.GENERAL, "shard_count", shardInfo.getCount())));
+        }
+
+        private Mono<EmbedField> gdEventDispatch(Translator tr) {
+            final var stats = gdEventService.dispatchStats();
+            return Mono.just(new EmbedField(tr.translate(Strings.GENERAL, "gd_events_dispatch"),
+                    tr.translate(Strings.GENERAL, "gd_events_dispatch_value", stats.queueDepth(), stats.inProgress(),
+                            stats.processed(), stats.failed(), stats.averageLatency().toMillis() + " ms",
+                            stats.maxLatency().toMillis() + " ms")));
+        }
+
+        private Mono<EmbedField> interactionLogs(Translator tr) {
+            return Mono.just(new EmbedField(tr.translate(Strings.GENERAL, "interaction_logs"),
+                    tr.translate(Strings.GENERAL, "interaction_logs_value", interactionLogService.loggedCount(),
+                            interactionLogService.droppedCount(), interactionLogService.failedCount())));
+        }
+
+        private Mono<EmbedField> modAudit(Translator tr) {
+            final var progress = modAuditService.progress();
+            return Mono.just(new EmbedField(tr.translate(Strings.GENERAL, "mod_audit"), !progress.enabled()
+                    ? tr.translate(Strings.GENERAL, "mod_audit_disabled")
+                    : tr.translate(Strings.GENERAL, "mod_audit_value", progress.checked(), progress.total(),
+                    progress.changes(), progress.failed(), progress.lastRoundCompleted()
+                            .map(t -> tr.translate(Strings.GENERAL, "ago", DurationUtils.format(
+                                    Duration.between(t, Instant.now()).withNanos(0))))
+                            .orElse("N/A"))));
+        }
+
+        @Override
+        public Publisher<?> run(ChatInputInteractionContext ctx) {
+            return Mono.zip(objArray -> Flux.fromArray(objArray).cast(EmbedField.class).collectList(),
+                            uptime(ctx),
+                            memory(ctx),
+                            shardInfo(ctx),
+                            gdEventDispatch(ctx),
+                            interactionLogs(ctx),
+                            modAudit(ctx))
+                    .flatMap(Function.identity())
+                    .flatMap(embedFields -> {
+                        final var embed = EmbedCreateSpec.builder();
+                        embedFields.forEach(field -> embed.addField(field.title, field.content, false));
+                        embed.timestamp(Instant.now());
+                        return ctx.event().createFollowup().withEmbeds(embed.build());
+                    })
+                    .then();
+        }
     }
 
-    @Override
-    public Publisher<?> run(ChatInputInteractionContext ctx) {
-        return Mono.zip(objArray -> Flux.fromArray(objArray).cast(EmbedField.class).collectList(),
-                        uptime(ctx),
-                        memory(ctx),
-                        shardInfo(ctx))
-                .flatMap(Function.identity())
-                .flatMap(embedFields -> {
-                    final var embed = EmbedCreateSpec.builder();
-                    embedFields.forEach(field -> embed.addField(field.title, field.content, false));
-                    embed.timestamp(Instant.now());
-                    return ctx.event().createFollowup().withEmbeds(embed.build());
-                })
-                .then();
+    @RdiService
+    public static final class MetricsSummary implements ChatInputInteractionListener {
+
+        private static final int MAX_ENTRIES_PER_FIELD = 10;
+
+        private static String formatMillis(Duration duration) {
+            return String.format("%.1f", duration.toNanos() / 1_000_000.0);
+        }
+
+        private static EmbedField timerField(Translator tr, String titleKey, String metricName, String tagKey) {
+            final var lines = Metrics.find(metricName, Timer.class).stream()
+                    .collect(Collectors.groupingBy(timer -> timer.id().tag(tagKey)))
+                    .entrySet()
+                    .stream()
+                    .map(entry -> {
+                        final var timers = entry.getValue();
+                        final var count = timers.stream().mapToLong(Timer::count).sum();
+                        final var errors = timers.stream()
+                                .filter(timer -> timer.id().tag("outcome").equals("error"))
+                                .mapToLong(Timer::count)
+                                .sum();
+                        final var mean = count == 0 ? Duration.ZERO : Duration.ofNanos(timers.stream()
+                                .mapToLong(timer -> timer.mean().toNanos() * timer.count())
+                                .sum() / count);
+                        final var max = timers.stream().map(Timer::max).max(Comparator.naturalOrder())
+                                .orElse(Duration.ZERO);
+                        return Map.entry(count, tr.translate(Strings.GENERAL, "metrics_timer_entry",
+                                Markdown.code(entry.getKey()), count, errors, formatMillis(mean), formatMillis(max)));
+                    })
+                    .sorted(Map.Entry.<Long, String>comparingByKey().reversed())
+                    .limit(MAX_ENTRIES_PER_FIELD)
+                    .map(Map.Entry::getValue)
+                    .collect(Collectors.joining("\n"));
+            return new EmbedField(tr.translate(Strings.GENERAL, titleKey),
+                    lines.isEmpty() ? tr.translate(Strings.GENERAL, "no_data") : lines);
+        }
+
+        private static EmbedField cacheField(Translator tr) {
+            final var lines = Metrics.find("ugdb_cache_hit_ratio", Gauge.class).stream()
+                    .map(gauge -> tr.translate(Strings.GENERAL, "metrics_cache_entry",
+                            Markdown.code(gauge.id().tag("cache")), String.format("%.2f", gauge.value() * 100)))
+                    .collect(Collectors.joining("\n"));
+            return new EmbedField(tr.translate(Strings.GENERAL, "metrics_caches"),
+                    lines.isEmpty() ? tr.translate(Strings.GENERAL, "no_data") : lines);
+        }
+
+        @Override
+        public Publisher<?> run(ChatInputInteractionContext ctx) {
+            final var embed = EmbedCreateSpec.builder();
+            Stream.of(
+                    timerField(ctx, "metrics_commands", "ugdb_command_duration_seconds", "command"),
+                    timerField(ctx, "metrics_gd_requests", "ugdb_gd_request_duration_seconds", "endpoint"),
+                    cacheField(ctx),
+                    timerField(ctx, "metrics_discord_requests", "ugdb_discord_request_duration_seconds", "route"),
+                    timerField(ctx, "metrics_mongo_commands", "ugdb_mongo_command_duration_seconds", "command"),
+                    timerField(ctx, "metrics_gd_event_producers", "ugdb_gd_event_producer_duration_seconds",
+                            "producer"),
+                    timerField(ctx, "metrics_gd_event_dispatch", "ugdb_gd_event_dispatch_duration_seconds", "event")
+            ).forEach(field -> embed.addField(field.title, field.content, false));
+            embed.timestamp(Instant.now());
+            return ctx.event().createFollowup().withEmbeds(embed.build()).then();
+        }
     }
 
     private record EmbedField(String title, String content) {
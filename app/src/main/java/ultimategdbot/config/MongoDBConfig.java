@@ -21,4 +21,13 @@ public interface MongoDBConfig {
     default String connectionString() {
         return "mongodb://localhost:27017";
     }
+
+    /**
+     * Whether to explain the queries of the bot at startup and log a warning for those that scan a whole collection.
+     */
+    @Value.Default
+    @JsonProperty("query_plan_diagnostics")
+    default boolean queryPlanDiagnostics() {
+        return false;
+    }
 }
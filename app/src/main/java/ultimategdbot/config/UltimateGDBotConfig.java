@@ -26,6 +26,30 @@ public interface UltimateGDBotConfig {
         return Set.of();
     }
 
+    @JsonProperty("asset_channel_id")
+    Optional<Long> assetChannelId();
+
+    @Value.Default
+    @JsonProperty("warm_up_image_caches")
+    default boolean warmUpImageCaches() {
+        return false;
+    }
+
+    @Value.Default
+    @JsonProperty("image_encoding")
+    default ImageEncoding imageEncoding() {
+        return ImmutableImageEncoding.builder().build();
+    }
+
+    @Value.Default
+    @JsonProperty("interaction_logging")
+    default InteractionLogging interactionLogging() {
+        return ImmutableInteractionLogging.builder().build();
+    }
+
+    @JsonProperty("metrics_endpoint")
+    Optional<MetricsEndpoint> metricsEndpoint();
+
     GD gd();
 
     @Value.Immutable
@@ -36,6 +60,12 @@ public interface UltimateGDBotConfig {
 
         Events events();
 
+        @Value.Default
+        @JsonProperty("mod_audit")
+        default ModAudit modAudit() {
+            return ImmutableModAudit.builder().build();
+        }
+
         @Value.Immutable
         @JsonDeserialize(as = ImmutableClient.class)
         interface Client {
@@ -56,6 +86,48 @@ public interface UltimateGDBotConfig {
             Optional<Limiter> requestLimiter();
         }
 
+        @Value.Immutable
+        @JsonDeserialize(as = ImmutableModAudit.class)
+        interface ModAudit {
+
+            @Value.Default
+            default boolean enabled() {
+                return false;
+            }
+
+            @Value.Default
+            @JsonProperty("interval_minutes")
+            default int intervalMinutes() {
+                return 360;
+            }
+
+            @Value.Default
+            @JsonProperty("budget_share")
+            default double budgetShare() {
+                return 0.1;
+            }
+
+            @Value.Default
+            @JsonProperty("recent_link_days")
+            default int recentLinkDays() {
+                return 30;
+            }
+
+            @Value.Default
+            @JsonProperty("state_file")
+            default String stateFile() {
+                return "mod-audit.state";
+            }
+
+            @Value.Check
+            default void check() {
+                if (!(budgetShare() > 0 && budgetShare() <= 1)) {
+                    throw new IllegalStateException("gd.mod_audit.budget_share must be greater than 0 and at most 1, " +
+                            "got " + budgetShare());
+                }
+            }
+        }
+
         @Value.Immutable
         @JsonDeserialize(as = ImmutableEvents.class)
         interface Events {
@@ -63,8 +135,20 @@ public interface UltimateGDBotConfig {
             @JsonProperty("event_loop_interval_seconds")
             int eventLoopIntervalSeconds();
 
+            @Value.Default
+            @JsonProperty("dispatch_parallelism")
+            default int dispatchParallelism() {
+                return 4;
+            }
+
             boolean crosspost();
 
+            @Value.Default
+            @JsonProperty("channel_selection")
+            default ChannelSelection channelSelection() {
+                return ChannelSelection.LEAST_LOADED;
+            }
+
             @JsonProperty("rates_channel_ids")
             Set<Long> ratesChannelIds();
 
@@ -83,6 +167,93 @@ public interface UltimateGDBotConfig {
             @JsonProperty("dm_random_messages")
             Optional<RandomMessages> dmRandomMessages();
 
+            @JsonProperty("record_file")
+            Optional<String> recordFile();
+
+            @Value.Default
+            default Journal journal() {
+                return ImmutableJournal.builder().build();
+            }
+
+            @Value.Default
+            @JsonProperty("rate_batching")
+            default RateBatching rateBatching() {
+                return ImmutableRateBatching.builder().build();
+            }
+
+            enum ChannelSelection {
+                @JsonProperty("round_robin")
+                ROUND_ROBIN,
+                @JsonProperty("least_loaded")
+                LEAST_LOADED
+            }
+
+            @Value.Immutable
+            @JsonDeserialize(as = ImmutableJournal.class)
+            interface Journal {
+
+                @Value.Default
+                default String directory() {
+                    return "event-journal";
+                }
+
+                @Value.Default
+                @JsonProperty("segment_size_kb")
+                default int segmentSizeKb() {
+                    return 4096;
+                }
+
+                @Value.Default
+                @JsonProperty("max_segments")
+                default int maxSegments() {
+                    return 16;
+                }
+
+                @Value.Default
+                @JsonProperty("max_events_per_poll")
+                default int maxEventsPerPoll() {
+                    return 50;
+                }
+
+                /**
+                 * How long to wait before processing again an event that failed for a reason that may be temporary.
+                 * The delay doubles after each failure of the same event, up to {@link #retryMaxBackoffSeconds()}.
+                 */
+                @Value.Default
+                @JsonProperty("retry_min_backoff_seconds")
+                default int retryMinBackoffSeconds() {
+                    return 30;
+                }
+
+                @Value.Default
+                @JsonProperty("retry_max_backoff_seconds")
+                default int retryMaxBackoffSeconds() {
+                    return 3600;
+                }
+            }
+
+            @Value.Immutable
+            @JsonDeserialize(as = ImmutableRateBatching.class)
+            interface RateBatching {
+
+                @Value.Default
+                default boolean enabled() {
+                    return false;
+                }
+
+                @Value.Default
+                @JsonProperty("window_millis")
+                default long windowMillis() {
+                    return 2000;
+                }
+
+                @Value.Default
+                @JsonProperty("max_embeds")
+                default int maxEmbeds() {
+                    return 10;
+                }
+            }
+
             @Value.Immutable
             @JsonDeserialize(as = ImmutableRandomMessages.class)
             interface RandomMessages {
@@ -116,6 +287,110 @@ public interface UltimateGDBotConfig {
         }
     }
 
+    @Value.Immutable
+    @JsonDeserialize(as = ImmutableImageEncoding.class)
+    interface ImageEncoding {
+
+        @Value.Default
+        @JsonProperty("compression_level")
+        default int compressionLevel() {
+            return 6;
+        }
+
+        @Value.Default
+        @JsonProperty("palette_quantization")
+        default boolean paletteQuantization() {
+            return true;
+        }
+
+        /**
+         * How many bits of precision each color channel may lose for an image to fit in a palette. 0 keeps palette
+         * quantization lossless, up to 3 makes it lossy for images with more than 256 colors.
+         */
+        @Value.Default
+        @JsonProperty("palette_precision_loss_bits")
+        default int palettePrecisionLossBits() {
+            return 0;
+        }
+
+        @Value.Default
+        @JsonProperty("render_threads")
+        default int renderThreads() {
+            return 0;
+        }
+
+        @Value.Default
+        @JsonProperty("render_queue_capacity")
+        default int renderQueueCapacity() {
+            return 32;
+        }
+    }
+
+    @Value.Immutable
+    @JsonDeserialize(as = ImmutableInteractionLogging.class)
+    interface InteractionLogging {
+
+        @Value.Default
+        @JsonProperty("batch_size")
+        default int batchSize() {
+            return 100;
+        }
+
+        @Value.Default
+        @JsonProperty("flush_interval_seconds")
+        default int flushIntervalSeconds() {
+            return 5;
+        }
+
+        @Value.Default
+        @JsonProperty("buffer_size")
+        default int bufferSize() {
+            return 10_000;
+        }
+
+        /**
+         * How long interaction logs are kept, or 0 to keep them forever.
+         */
+        @Value.Default
+        @JsonProperty("retention_days")
+        default int retentionDays() {
+            return 0;
+        }
+
+        @Value.Default
+        @JsonProperty("overflow_strategy")
+        default OverflowStrategy overflowStrategy() {
+            return OverflowStrategy.DROP_OLDEST;
+        }
+
+        enum OverflowStrategy {
+            @JsonProperty("drop_oldest")
+            DROP_OLDEST,
+            @JsonProperty("drop_latest")
+            DROP_LATEST
+        }
+    }
+
+    @Value.Immutable
+    @JsonDeserialize(as = ImmutableMetricsEndpoint.class)
+    interface MetricsEndpoint {
+
+        @Value.Default
+        default String host() {
+            return "127.0.0.1";
+        }
+
+        @Value.Default
+        default int port() {
+            return 9464;
+        }
+
+        @Value.Default
+        default String path() {
+            return "/metrics";
+        }
+    }
+
     @Value.Immutable
     @JsonDeserialize(as = ImmutableLimiter.class)
     interface Limiter {
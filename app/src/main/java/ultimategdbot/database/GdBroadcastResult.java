@@ -0,0 +1,49 @@
+package ultimategdbot.database;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.criteria.Criteria;
+import org.immutables.criteria.reactor.ReactorReadable;
+import org.immutables.criteria.reactor.ReactorWritable;
+import org.immutables.value.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value.Immutable
+@Criteria
+@Criteria.Repository(facets = {ReactorReadable.class, ReactorWritable.class})
+@JsonSerialize(as = ImmutableGdBroadcastResult.class)
+@JsonDeserialize(as = ImmutableGdBroadcastResult.class)
+public interface GdBroadcastResult {
+
+    @Criteria.Id
+    @JsonProperty("_id")
+    long levelId();
+
+    List<MessageRef> messages();
+
+    Instant insertDate();
+
+    @Value.Immutable
+    @JsonSerialize(as = ImmutableMessageRef.class)
+    @JsonDeserialize(as = ImmutableMessageRef.class)
+    interface MessageRef {
+
+        @Value.Parameter
+        long channelId();
+
+        @Value.Parameter
+        long messageId();
+
+        /**
+         * The index of the level's embed within the message, or -1 if the message only contains the embed of this
+         * level.
+         */
+        @Value.Default
+        default int embedIndex() {
+            return -1;
+        }
+    }
+}
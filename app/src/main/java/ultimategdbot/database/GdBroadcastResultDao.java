@@ -0,0 +1,48 @@
+package ultimategdbot.database;
+
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
+import com.github.alex1304.rdi.finder.annotation.RdiService;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import org.immutables.criteria.backend.WriteResult;
+import reactor.core.publisher.Mono;
+import ultimategdbot.service.DatabaseService;
+import ultimategdbot.service.DatabaseService.IndexDefinition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ultimategdbot.database.GdBroadcastResultCriteria.gdBroadcastResult;
+
+@RdiService
+public final class GdBroadcastResultDao {
+
+    /**
+     * How long broadcast results are kept. Past this delay, the corresponding messages are no longer updated.
+     */
+    public static final Duration RETENTION = Duration.ofDays(3);
+
+    private final GdBroadcastResultRepository repository;
+
+    private GdBroadcastResultDao(GdBroadcastResultRepository repository) {
+        this.repository = repository;
+    }
+
+    @RdiFactory
+    public static Mono<GdBroadcastResultDao> create(DatabaseService db) {
+        return db.ensureIndexes(GdBroadcastResult.class,
+                        List.of(new IndexDefinition(Indexes.ascending("insertDate"),
+                                new IndexOptions().expireAfter(RETENTION.toSeconds(), TimeUnit.SECONDS))),
+                        List.of())
+                .thenReturn(new GdBroadcastResultDao(new GdBroadcastResultRepository(db.getBackend())));
+    }
+
+    public Mono<GdBroadcastResult> get(long levelId) {
+        return repository.find(gdBroadcastResult.levelId.is(levelId)).oneOrNone();
+    }
+
+    public Mono<WriteResult> saveAll(List<GdBroadcastResult> results) {
+        return repository.upsertAll(results);
+    }
+}
@@ -26,4 +26,12 @@ public interface GdLinkedUser {
     boolean isLinkActivated();
 
     Optional<String> confirmationToken();
+
+    /**
+     * The time the link was activated, in epoch milliseconds, or 0 if it was activated before this was recorded.
+     */
+    @Value.Default
+    default long linkActivatedAt() {
+        return 0;
+    }
 }
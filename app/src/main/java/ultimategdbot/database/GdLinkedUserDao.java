@@ -2,11 +2,23 @@ package ultimategdbot.database;
 
 import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.immutables.criteria.backend.ContainerNaming;
 import org.immutables.criteria.backend.WriteResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ultimategdbot.service.DatabaseService;
+import ultimategdbot.service.DatabaseService.IndexDefinition;
+import ultimategdbot.service.DatabaseService.QueryShape;
 
+import java.time.Instant;
 import java.util.List;
 
 import static ultimategdbot.database.GdLinkedUserCriteria.gdLinkedUser;
@@ -14,11 +26,42 @@ import static ultimategdbot.database.GdLinkedUserCriteria.gdLinkedUser;
 @RdiService
 public final class GdLinkedUserDao {
 
+    private static final List<IndexDefinition> INDEXES = List.of(
+            // Discord accounts and DM recipients of a GD user, looked up on every GD event
+            new IndexDefinition(Indexes.ascending("gdUserId", "isLinkActivated")),
+            // Recently linked accounts, for the moderator audit
+            new IndexDefinition(Indexes.ascending("isLinkActivated", "linkActivatedAt")));
+    private static final List<QueryShape> QUERY_SHAPES = List.of(
+            QueryShape.find("linked accounts of GD user",
+                    Filters.and(Filters.eq("gdUserId", 0L), Filters.eq("isLinkActivated", true)), null, null),
+            QueryShape.aggregate("DM recipients of GD user", dmRecipientsPipeline(0L)),
+            QueryShape.find("recently linked accounts",
+                    Filters.and(Filters.eq("isLinkActivated", true), Filters.gte("linkActivatedAt", 0L)), null, null));
+
     private final GdLinkedUserRepository repository;
+    private final MongoCollection<Document> collection;
 
-    @RdiFactory
-    public GdLinkedUserDao(DatabaseService db) {
+    private GdLinkedUserDao(DatabaseService db) {
         this.repository = new GdLinkedUserRepository(db.getBackend());
+        this.collection = db.getDatabase()
+                .getCollection(ContainerNaming.DEFAULT.name(GdLinkedUser.class))
+                .withCodecRegistry(MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    @RdiFactory
+    public static Mono<GdLinkedUserDao> create(DatabaseService db) {
+        return db.ensureIndexes(GdLinkedUser.class, INDEXES, QUERY_SHAPES).thenReturn(new GdLinkedUserDao(db));
+    }
+
+    private static List<Bson> dmRecipientsPipeline(long gdUserId) {
+        return List.of(
+                Aggregates.match(Filters.and(
+                        Filters.eq("gdUserId", gdUserId),
+                        Filters.eq("isLinkActivated", true))),
+                Aggregates.lookup(ContainerNaming.DEFAULT.name(UserSettings.class), "_id", "_id", "settings"),
+                // Users without settings accept DMs by default
+                Aggregates.match(Filters.ne("settings.receiveDmOnEvent", false)),
+                Aggregates.project(Projections.include("_id")));
     }
 
     public Flux<Long> getDiscordAccountsForGDUser(long gdUserId) {
@@ -28,6 +71,18 @@ public final class GdLinkedUserDao {
                 .map(GdLinkedUser::discordUserId);
     }
 
+    /**
+     * Gets the Discord accounts linked to the given GD user that accept DMs on GD events. The settings of each account
+     * are joined in the same query.
+     *
+     * @param gdUserId the GD user ID
+     * @return a Flux of Discord user IDs
+     */
+    public Flux<Long> getDmRecipientsForGDUser(long gdUserId) {
+        return Flux.from(collection.aggregate(dmRecipientsPipeline(gdUserId)))
+                .map(document -> document.get("_id", Number.class).longValue());
+    }
+
     public Mono<GdLinkedUser> get(long discordUserId) {
         return repository.find(gdLinkedUser.discordUserId.is(discordUserId)).oneOrNone();
     }
@@ -51,6 +106,20 @@ public final class GdLinkedUserDao {
         return repository.find(gdLinkedUser.discordUserId.in(discordUserIds)).fetch();
     }
 
+    /**
+     * Gets the GD users that have been linked to a Discord account since the given time.
+     *
+     * @param since the earliest link activation time
+     * @return a Flux of GD user IDs, possibly with duplicates
+     */
+    public Flux<Long> getGdUsersLinkedSince(Instant since) {
+        return repository
+                .find(gdLinkedUser.isLinkActivated.isTrue()
+                        .and(gdLinkedUser.linkActivatedAt.atLeast(since.toEpochMilli())))
+                .fetch()
+                .map(GdLinkedUser::gdUserId);
+    }
+
     public Mono<WriteResult> save(GdLinkedUser linkedUser) {
         return repository.upsert(linkedUser);
     }
@@ -59,6 +128,7 @@ public final class GdLinkedUserDao {
         return repository.update(gdLinkedUser.discordUserId.is(discordUserId))
                 .set(gdLinkedUser.confirmationToken, null)
                 .set(gdLinkedUser.isLinkActivated, true)
+                .set(gdLinkedUser.linkActivatedAt, System.currentTimeMillis())
                 .execute();
     }
 
@@ -2,21 +2,52 @@ package ultimategdbot.database;
 
 import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.CollationStrength;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import org.bson.conversions.Bson;
 import org.immutables.criteria.backend.WriteResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ultimategdbot.service.DatabaseService;
+import ultimategdbot.service.DatabaseService.IndexDefinition;
+import ultimategdbot.service.DatabaseService.QueryShape;
+
+import java.util.List;
 
 import static ultimategdbot.database.GdModCriteria.gdMod;
 
 @RdiService
 public final class GdModDao {
 
+    /**
+     * Collation used to sort mods by name. The index backing the mod list must be created with the same collation.
+     */
+    private static final Collation CASE_INSENSITIVE = Collation.builder()
+            .locale("en")
+            .collationStrength(CollationStrength.SECONDARY)
+            .build();
+    private static final Bson PAGE_SORT = Sorts.orderBy(Sorts.descending("elder"), Sorts.ascending("name"));
+
     private final GdModRepository repository;
+    private final MongoCollection<GdMod> collection;
 
-    @RdiFactory
-    public GdModDao(DatabaseService db) {
+    private GdModDao(DatabaseService db) {
         this.repository = new GdModRepository(db.getBackend());
+        this.collection = db.getCollection(GdMod.class);
+    }
+
+    @RdiFactory
+    public static Mono<GdModDao> create(DatabaseService db) {
+        return db.ensureIndexes(GdMod.class,
+                        List.of(new IndexDefinition(Indexes.compoundIndex(Indexes.descending("elder"),
+                                Indexes.ascending("name")), new IndexOptions().collation(CASE_INSENSITIVE))),
+                        List.of(QueryShape.find("mod list page", Filters.empty(), PAGE_SORT, CASE_INSENSITIVE)))
+                .thenReturn(new GdModDao(db));
     }
 
     public Mono<GdMod> get(long accountId) {
@@ -27,6 +58,25 @@ public final class GdModDao {
         return repository.findAll().fetch();
     }
 
+    public Mono<Long> count() {
+        return Mono.from(collection.countDocuments());
+    }
+
+    /**
+     * Gets a page of the mod list, sorted by decreasing elder level, then by name ignoring case.
+     *
+     * @param offset the number of mods to skip
+     * @param limit  the maximum number of mods to return
+     * @return a Flux of mods
+     */
+    public Flux<GdMod> getPage(long offset, int limit) {
+        return Flux.from(collection.find()
+                        .sort(PAGE_SORT)
+                        .collation(CASE_INSENSITIVE)
+                        .skip((int) offset)
+                        .limit(limit));
+    }
+
     public Mono<WriteResult> save(GdMod mod) {
         return repository.upsert(mod);
     }
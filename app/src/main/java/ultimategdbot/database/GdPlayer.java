@@ -0,0 +1,25 @@
+package ultimategdbot.database;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.criteria.Criteria;
+import org.immutables.criteria.reactor.ReactorReadable;
+import org.immutables.criteria.reactor.ReactorWritable;
+import org.immutables.value.Value;
+
+@Value.Immutable
+@Criteria
+@Criteria.Repository(facets = {ReactorReadable.class, ReactorWritable.class})
+@JsonSerialize(as = ImmutableGdPlayer.class)
+@JsonDeserialize(as = ImmutableGdPlayer.class)
+public interface GdPlayer {
+
+    @Criteria.Id
+    @JsonProperty("_id")
+    long playerId();
+
+    long accountId();
+
+    String name();
+}
@@ -0,0 +1,30 @@
+package ultimategdbot.database;
+
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
+import com.github.alex1304.rdi.finder.annotation.RdiService;
+import org.immutables.criteria.backend.WriteResult;
+import reactor.core.publisher.Mono;
+import ultimategdbot.service.DatabaseService;
+
+import java.util.List;
+
+import static ultimategdbot.database.GdPlayerCriteria.gdPlayer;
+
+@RdiService
+public final class GdPlayerDao {
+
+    private final GdPlayerRepository repository;
+
+    @RdiFactory
+    public GdPlayerDao(DatabaseService db) {
+        this.repository = new GdPlayerRepository(db.getBackend());
+    }
+
+    public Mono<GdPlayer> get(long playerId) {
+        return repository.find(gdPlayer.playerId.is(playerId)).oneOrNone();
+    }
+
+    public Mono<WriteResult> saveAll(List<GdPlayer> players) {
+        return repository.upsertAll(players);
+    }
+}
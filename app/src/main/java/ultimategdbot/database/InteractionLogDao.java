@@ -1,30 +1,51 @@
 package ultimategdbot.database;
 
+import botrino.api.config.ConfigContainer;
 import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
 import discord4j.common.util.Snowflake;
 import discord4j.core.object.command.Interaction;
 import discord4j.core.object.entity.Member;
 import discord4j.discordjson.Id;
 import org.immutables.criteria.backend.WriteResult;
 import reactor.core.publisher.Mono;
+import ultimategdbot.config.UltimateGDBotConfig;
 import ultimategdbot.service.DatabaseService;
+import ultimategdbot.service.DatabaseService.IndexDefinition;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RdiService
 public final class InteractionLogDao {
 
     private final InteractionLogRepository repository;
 
+    private InteractionLogDao(InteractionLogRepository repository) {
+        this.repository = repository;
+    }
+
     @RdiFactory
-    public InteractionLogDao(DatabaseService db) {
-        this.repository = new InteractionLogRepository(db.getBackend());
+    public static Mono<InteractionLogDao> create(DatabaseService db, ConfigContainer configContainer) {
+        final var retentionDays = configContainer.get(UltimateGDBotConfig.class).interactionLogging().retentionDays();
+        // Interaction logs are only inserted, so the only index is the optional TTL one
+        final var indexes = retentionDays > 0
+                ? List.of(new IndexDefinition(Indexes.ascending("date"), new IndexOptions()
+                        .expireAfter(Duration.ofDays(retentionDays).toSeconds(), TimeUnit.SECONDS)))
+                : List.<IndexDefinition>of();
+        return db.ensureIndexes(InteractionLog.class, indexes, List.of())
+                .thenReturn(new InteractionLogDao(new InteractionLogRepository(db.getBackend())));
     }
 
-    public Mono<WriteResult> saveInteraction(Interaction interaction) {
+    public static Optional<InteractionLog> toLog(Interaction interaction) {
         if (interaction.getCommandInteraction().isEmpty()) {
-            return Mono.empty();
+            return Optional.empty();
         }
-        return repository.upsert(ImmutableInteractionLog.builder()
+        return Optional.of(ImmutableInteractionLog.builder()
                 .id(Id.of(interaction.getId().asLong()))
                 .userLocale(interaction.getUserLocale())
                 .guildLocale(interaction.getGuildLocale())
@@ -36,4 +57,8 @@ public final class InteractionLogDao {
                 .command(interaction.getData().data().toOptional())
                 .build());
     }
+
+    public Mono<WriteResult> saveAll(List<InteractionLog> logs) {
+        return repository.insertAll(logs);
+    }
 }
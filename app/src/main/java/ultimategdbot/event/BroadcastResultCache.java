@@ -6,31 +6,98 @@ import discord4j.common.util.Snowflake;
 import discord4j.core.GatewayDiscordClient;
 import discord4j.core.object.entity.Message;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import ultimategdbot.database.GdBroadcastResult;
+import ultimategdbot.database.GdBroadcastResultDao;
+import ultimategdbot.database.ImmutableGdBroadcastResult;
+import ultimategdbot.database.ImmutableMessageRef;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Keeps track of the messages sent for each level, so that they can be edited on level updates. Recent results are
+ * kept in memory, and all results are persisted to the database in batches so that they survive restarts.
+ */
 class BroadcastResultCache {
 
+    private static final Logger LOGGER = Loggers.getLogger(BroadcastResultCache.class);
+    private static final int WRITE_BATCH_SIZE = 50;
+    private static final Duration WRITE_BATCH_INTERVAL = Duration.ofSeconds(5);
+
     private final Cache<Long, List<MessageId>> results = Caffeine.newBuilder()
-            .expireAfterWrite(Duration.ofDays(3))
+            .expireAfterWrite(GdBroadcastResultDao.RETENTION)
             .build();
+    private final GdBroadcastResultDao dao;
+    private final Sinks.Many<GdBroadcastResult> pendingWrites = Sinks.many().unicast().onBackpressureBuffer();
+
+    BroadcastResultCache(GdBroadcastResultDao dao) {
+        this(dao, WRITE_BATCH_SIZE, WRITE_BATCH_INTERVAL);
+    }
+
+    BroadcastResultCache(GdBroadcastResultDao dao, int writeBatchSize, Duration writeBatchInterval) {
+        this.dao = dao;
+        pendingWrites.asFlux()
+                .bufferTimeout(writeBatchSize, writeBatchInterval)
+                .concatMap(batch -> {
+                    // Only keep the latest result of each level within the batch
+                    final var latest = new LinkedHashMap<Long, GdBroadcastResult>();
+                    batch.forEach(result -> latest.put(result.levelId(), result));
+                    return dao.saveAll(List.copyOf(latest.values()))
+                            .onErrorResume(e -> Mono.fromRunnable(() ->
+                                    LOGGER.error("Failed to persist " + latest.size() + " broadcast results", e)));
+                })
+                .subscribe();
+    }
 
     void put(long levelId, List<MessageId> messages) {
         requireNonNull(messages);
         results.put(levelId, messages);
+        pendingWrites.emitNext(ImmutableGdBroadcastResult.builder()
+                        .levelId(levelId)
+                        .messages(messages.stream()
+                                .map(msg -> ImmutableMessageRef.of(msg.channelId.asLong(), msg.messageId.asLong())
+                                        .withEmbedIndex(msg.embedIndex))
+                                .toList())
+                        .insertDate(Instant.now())
+                        .build(),
+                Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
     }
 
-    Optional<List<MessageId>> get(long levelId) {
-        return Optional.ofNullable(results.getIfPresent(levelId))
-                .map(Collections::unmodifiableList);
+    Mono<List<MessageId>> get(long levelId) {
+        final var cached = results.getIfPresent(levelId);
+        if (cached != null) {
+            return Mono.just(Collections.unmodifiableList(cached));
+        }
+        return dao.get(levelId)
+                .map(result -> result.messages().stream()
+                        .map(ref -> new MessageId(Snowflake.of(ref.channelId()), Snowflake.of(ref.messageId()),
+                                ref.embedIndex()))
+                        .toList())
+                .doOnNext(messages -> results.put(levelId, messages));
     }
 
-    record MessageId(Snowflake channelId, Snowflake messageId) {
+    /**
+     * Identifies a message sent for a level. If the message was sent as part of a batch, {@code embedIndex} is the
+     * index of the level's embed within the message, otherwise it is -1.
+     */
+    record MessageId(Snowflake channelId, Snowflake messageId, int embedIndex) {
+
+        MessageId(Snowflake channelId, Snowflake messageId) {
+            this(channelId, messageId, -1);
+        }
+
+        boolean isBatched() {
+            return embedIndex >= 0;
+        }
+
         Mono<Message> toMessage(GatewayDiscordClient gateway) {
             return gateway.getMessageById(channelId, messageId);
         }
@@ -0,0 +1,59 @@
+package ultimategdbot.event;
+
+import discord4j.common.util.Snowflake;
+import discord4j.rest.entity.RestChannel;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * Strategy to select which channel an event should be broadcast to, when several channels are configured for the same
+ * kind of events. Implementations are safe to use from multiple threads.
+ */
+interface ChannelSelector {
+
+    /**
+     * Cycles through the channels in order.
+     *
+     * @return a new selector
+     */
+    static ChannelSelector roundRobin() {
+        final var rotator = new AtomicLong();
+        return channels -> channels.isEmpty() ? null :
+                channels.get((int) Math.floorMod(rotator.getAndIncrement(), channels.size()));
+    }
+
+    /**
+     * Selects the channel with the lowest load. Ties are broken in a round-robin fashion, so that channels with equal
+     * load are used evenly.
+     *
+     * @param load the function giving the current load of a channel
+     * @return a new selector
+     */
+    static ChannelSelector leastLoaded(ToIntFunction<Snowflake> load) {
+        final var rotator = new AtomicLong();
+        return channels -> {
+            if (channels.isEmpty()) {
+                return null;
+            }
+            final var leastLoaded = new ArrayList<RestChannel>();
+            var minLoad = Integer.MAX_VALUE;
+            for (final var channel : channels) {
+                final var channelLoad = load.applyAsInt(channel.getId());
+                if (channelLoad < minLoad) {
+                    leastLoaded.clear();
+                    minLoad = channelLoad;
+                }
+                if (channelLoad == minLoad) {
+                    leastLoaded.add(channel);
+                }
+            }
+            return leastLoaded.get((int) Math.floorMod(rotator.getAndIncrement(), leastLoaded.size()));
+        };
+    }
+
+    @Nullable RestChannel select(List<RestChannel> channels);
+}
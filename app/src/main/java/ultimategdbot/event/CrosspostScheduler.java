@@ -0,0 +1,147 @@
+package ultimategdbot.event;
+
+import botrino.api.i18n.Translator;
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.entity.Message;
+import discord4j.rest.entity.RestChannel;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import ultimategdbot.Strings;
+import ultimategdbot.metrics.Metrics;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes messages posted in announcement channels, while staying within the crosspost rate limit that Discord
+ * applies to each channel. Messages of a same channel are published in the order they were submitted. When the limit
+ * is reached, remaining messages wait for the budget to be replenished, and a single notice is posted in the channel
+ * until its backlog is cleared.
+ */
+class CrosspostScheduler {
+
+    private static final Logger LOGGER = Loggers.getLogger(CrosspostScheduler.class);
+    private static final int BUDGET = 10;
+    private static final Duration BUDGET_WINDOW = Duration.ofHours(1);
+
+    private final Translator tr;
+    private final Scheduler timer;
+    private final Map<Snowflake, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    CrosspostScheduler(Translator tr) {
+        this(tr, Schedulers.parallel());
+    }
+
+    CrosspostScheduler(Translator tr, Scheduler timer) {
+        this.tr = tr;
+        this.timer = timer;
+        Metrics.gauge("ugdb_crosspost_queue_depth", "Number of messages waiting to be crossposted.",
+                queueDepth::get);
+    }
+
+    /**
+     * Submits a message to crosspost.
+     *
+     * @param channel the channel the message was posted in, where the delay notice is posted if needed
+     * @param message the message to crosspost
+     * @param event   the event the message was posted for
+     */
+    void submit(RestChannel channel, Message message, Object event) {
+        queueDepth.incrementAndGet();
+        final var lane = lanes.computeIfAbsent(message.getChannelId(), Lane::new);
+        lane.pendingCount.incrementAndGet();
+        lane.sink.emitNext(new Pending(channel, message, event, now()),
+                Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+    }
+
+    /**
+     * Gives the load of the given channel, which is the number of messages waiting to be crossposted plus the part of
+     * the crosspost budget already used in the current window.
+     *
+     * @param channelId the channel ID
+     * @return the load
+     */
+    int load(Snowflake channelId) {
+        final var lane = lanes.get(channelId);
+        return lane == null ? 0 : lane.pendingCount.get() + lane.usedBudget;
+    }
+
+    private long now() {
+        return timer.now(TimeUnit.NANOSECONDS);
+    }
+
+    private void onDone(Lane lane, Pending pending, boolean success) {
+        queueDepth.decrementAndGet();
+        if (lane.pendingCount.decrementAndGet() == 0) {
+            lane.noticePosted = false;
+        }
+        Metrics.timer("ugdb_crosspost_delay_seconds", "Time between the submission of a message and its crosspost.",
+                        "outcome", success ? "success" : "error")
+                .record(now() - pending.submittedAt);
+    }
+
+    private final class Lane {
+
+        private final Sinks.Many<Pending> sink = Sinks.many().unicast().onBackpressureBuffer();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        // Only accessed from the sequential crosspost pipeline of this lane
+        private final ArrayDeque<Long> recentPublishes = new ArrayDeque<>();
+        private boolean noticePosted;
+        private volatile int usedBudget;
+
+        private Lane(Snowflake channelId) {
+            sink.asFlux()
+                    .concatMap(pending -> acquireBudget(pending)
+                            .then(pending.message.publish())
+                            .then(Mono.fromRunnable(() -> {
+                                onDone(this, pending, true);
+                                LOGGER.info("Successfully crossposted message for event {}", pending.event);
+                            }))
+                            .onErrorResume(e -> Mono.fromRunnable(() -> {
+                                onDone(this, pending, false);
+                                LOGGER.error("Unable to crosspost message for event " + pending.event, e);
+                            })))
+                    .subscribe();
+            LOGGER.debug("Opened crosspost lane for channel {}", channelId.asString());
+        }
+
+        private Mono<Void> acquireBudget(Pending pending) {
+            return Mono.defer(() -> {
+                final var now = now();
+                while (!recentPublishes.isEmpty() && now - recentPublishes.peekFirst() >= BUDGET_WINDOW.toNanos()) {
+                    recentPublishes.pollFirst();
+                }
+                if (recentPublishes.size() < BUDGET) {
+                    recentPublishes.addLast(now);
+                    usedBudget = recentPublishes.size();
+                    return Mono.empty();
+                }
+                usedBudget = recentPublishes.size();
+                final var wait = Duration.ofNanos(recentPublishes.peekFirst() + BUDGET_WINDOW.toNanos() - now);
+                LOGGER.info("Crosspost budget exhausted in channel {}, waiting {} s ({} messages pending)",
+                        pending.message.getChannelId().asString(), wait.toSeconds(), pendingCount.get());
+                final var notice = noticePosted ? Mono.empty() : postNotice(pending.channel);
+                noticePosted = true;
+                return notice.then(Mono.delay(wait, timer)).then(acquireBudget(pending));
+            });
+        }
+
+        private Mono<Void> postNotice(RestChannel channel) {
+            return channel.createMessage(":warning: " + tr.translate(Strings.GD, "gdevents_crosspost_delayed"))
+                    .onErrorResume(e -> Mono.fromRunnable(() ->
+                            LOGGER.warn("Unable to post crosspost delay notice", e)))
+                    .then();
+        }
+    }
+
+    private record Pending(RestChannel channel, Message message, Object event, long submittedAt) {}
+}
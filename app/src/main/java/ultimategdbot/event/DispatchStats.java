@@ -0,0 +1,75 @@
+package ultimategdbot.event;
+
+import ultimategdbot.metrics.Metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+public final class DispatchStats {
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger inProgress = new AtomicInteger();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    DispatchStats() {
+        Metrics.gauge("ugdb_gd_event_dispatch_queue_depth", "Number of GD events waiting to be dispatched.",
+                this::queueDepth);
+        Metrics.gauge("ugdb_gd_event_dispatch_in_progress", "Number of GD events being dispatched.",
+                this::inProgress);
+    }
+
+    void onReceived() {
+        pending.incrementAndGet();
+    }
+
+    void onStarted() {
+        inProgress.incrementAndGet();
+    }
+
+    void onFinished(long latencyNanos, boolean success) {
+        inProgress.decrementAndGet();
+        pending.decrementAndGet();
+        processed.incrementAndGet();
+        if (!success) {
+            failed.incrementAndGet();
+        }
+        totalLatencyNanos.addAndGet(latencyNanos);
+        maxLatencyNanos.accumulate(latencyNanos);
+    }
+
+    /**
+     * @return the number of events that have been received but whose processing has not started yet
+     */
+    public int queueDepth() {
+        return Math.max(0, pending.get() - inProgress.get());
+    }
+
+    public int inProgress() {
+        return inProgress.get();
+    }
+
+    public long processed() {
+        return processed.get();
+    }
+
+    public long failed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the average time between the reception of an event and the end of its processing
+     */
+    public Duration averageLatency() {
+        final var count = processed.get();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.get() / count);
+    }
+
+    public Duration maxLatency() {
+        return Duration.ofNanos(maxLatencyNanos.get());
+    }
+}
@@ -0,0 +1,85 @@
+package ultimategdbot.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.std.FromStringDeserializer;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import jdash.events.object.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Converts GD events to JSON and back, so that they can be stored in the {@link EventJournal} or recorded by the
+ * {@link EventRecorder}.
+ */
+final class EventCodec {
+
+    static final Map<String, Class<?>> TYPES = Map.of(
+            "awarded_level_add", AwardedLevelAdd.class,
+            "awarded_level_remove", AwardedLevelRemove.class,
+            "awarded_level_update", AwardedLevelUpdate.class,
+            "daily_level_change", DailyLevelChange.class,
+            "event_level_change", EventLevelChange.class,
+            "mod_status_update", ModStatusUpdate.class
+    );
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .addModule(new Jdk8Module())
+            .addModule(new SimpleModule()
+                    .addSerializer(Duration.class, ToStringSerializer.instance)
+                    .addDeserializer(Duration.class, new FromStringDeserializer<>(Duration.class) {
+                        @Override
+                        protected Duration _deserialize(String value, DeserializationContext ctxt) {
+                            return Duration.parse(value);
+                        }
+                    }))
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private static String typeOf(Object event) {
+        return TYPES.entrySet().stream()
+                .filter(entry -> entry.getValue().isInstance(event))
+                .map(Map.Entry::getKey)
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported event type: " +
+                        event.getClass().getName()));
+    }
+
+    byte[] encode(Object event) throws JsonProcessingException {
+        return mapper.writeValueAsBytes(new Envelope(typeOf(event), mapper.valueToTree(event)));
+    }
+
+    Object decode(byte[] payload) throws IOException {
+        final var envelope = mapper.readValue(payload, Envelope.class);
+        final var type = TYPES.get(envelope.type());
+        if (type == null) {
+            throw new IOException("Unknown event type: " + envelope.type());
+        }
+        return mapper.treeToValue(envelope.event(), type);
+    }
+
+    byte[] encodeRecord(long timestamp, Object event) throws JsonProcessingException {
+        return mapper.writeValueAsBytes(new Record(timestamp, typeOf(event), mapper.valueToTree(event)));
+    }
+
+    EventRecorder.RecordedEvent decodeRecord(String line) throws IOException {
+        final var record = mapper.readValue(line, Record.class);
+        final var type = TYPES.get(record.type());
+        if (type == null) {
+            throw new IOException("Unknown event type: " + record.type());
+        }
+        return new EventRecorder.RecordedEvent(record.timestamp(), mapper.treeToValue(record.event(), type));
+    }
+
+    record Envelope(String type, JsonNode event) {}
+
+    record Record(long timestamp, String type, JsonNode event) {}
+}
@@ -0,0 +1,381 @@
+package ultimategdbot.event;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal stored in fixed-size, memory-mapped segment files.
+ * <p>
+ * Entries are read in the order they were appended. An entry that has been read stays pending until it is
+ * acknowledged, and the position of the oldest pending entry is checkpointed to disk, so that entries read but not
+ * acknowledged before a restart are read again. Segments that only contain acknowledged entries are deleted. Entries
+ * that can never be processed are rejected instead: they are copied to a dead letter file, then acknowledged, so that
+ * they neither hold back the checkpoint nor get read again. Rejected entries can later be appended to the journal
+ * again with {@link #replayDeadLetters()}, for example once the cause of their failure has been fixed.
+ * <p>
+ * Each entry is stored as its length, the CRC32 of its payload, then the payload itself. A zero length marks the end
+ * of the written data, and a negative length marks the end of a segment.
+ */
+final class EventJournal implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    static final String DEAD_LETTER_FILE = "dead-letter";
+    private static final int HEADER_SIZE = 8;
+    private static final int END_OF_SEGMENT = -1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final TreeMap<Integer, MappedByteBuffer> segments = new TreeMap<>();
+    private final TreeSet<Long> pending = new TreeSet<>();
+    private int writeSegment;
+    private int writeOffset;
+    private int readSegment;
+    private int readOffset;
+    private long checkpoint;
+    private int deadLetters;
+
+    private EventJournal(Path directory, int segmentSize, int maxSegments) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Opens the journal stored in the given directory, creating it if it does not exist.
+     *
+     * @param directory   the directory containing the segment files
+     * @param segmentSize the size of each segment file in bytes
+     * @param maxSegments the maximum number of segment files, which bounds the disk space used by the journal
+     * @return the journal
+     * @throws IOException if an I/O error occurs
+     */
+    static EventJournal open(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize <= HEADER_SIZE * 2) {
+            throw new IllegalArgumentException("segmentSize is too small");
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be at least 1");
+        }
+        Files.createDirectories(directory);
+        final var journal = new EventJournal(directory, segmentSize, maxSegments);
+        journal.recover();
+        return journal;
+    }
+
+    private static long position(int segment, int offset) {
+        return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    private static int crc(byte[] payload) {
+        final var crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private void recover() throws IOException {
+        try (final var files = Files.list(directory)) {
+            for (final var file : files.toList()) {
+                final var name = file.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    final var index = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(index, map(index));
+                }
+            }
+        }
+        checkpoint = readCheckpoint();
+        // Segments entirely before the checkpoint may not have been deleted if the bot stopped right after it
+        while (!segments.isEmpty() && segments.firstKey() < segmentOf(checkpoint)) {
+            deleteSegment(segments.firstKey());
+        }
+        if (segments.isEmpty()) {
+            final var first = Math.max(0, segmentOf(checkpoint));
+            segments.put(first, map(first));
+            checkpoint = position(first, 0);
+        }
+        readSegment = segmentOf(checkpoint);
+        readOffset = offsetOf(checkpoint);
+        if (!segments.containsKey(readSegment)) {
+            readSegment = segments.firstKey();
+            readOffset = 0;
+        }
+        writeSegment = segments.lastKey();
+        writeOffset = scanEnd(segments.get(writeSegment));
+        deadLetters = readDeadLetters().size();
+    }
+
+    private int scanEnd(MappedByteBuffer buffer) {
+        var offset = 0;
+        while (offset + HEADER_SIZE <= segmentSize) {
+            final var length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            final var payload = new byte[length];
+            buffer.get(offset + HEADER_SIZE, payload);
+            if (crc(payload) != buffer.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        // Discard whatever comes after the last valid entry, such as a partially written one
+        for (var i = offset; i < segmentSize; i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+        return offset;
+    }
+
+    private MappedByteBuffer map(int index) throws IOException {
+        try (final var channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%010d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private void deleteSegment(int index) throws IOException {
+        segments.remove(index);
+        Files.deleteIfExists(segmentPath(index));
+    }
+
+    private long readCheckpoint() throws IOException {
+        final var file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        final var bytes = Files.readAllBytes(file);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0;
+    }
+
+    private void writeCheckpoint(long position) throws IOException {
+        final var tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (final var channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position));
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Appends an entry to the journal and flushes it to disk.
+     *
+     * @param payload the content of the entry
+     * @return true if the entry was appended, false if the journal is full
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized boolean append(byte[] payload) throws IOException {
+        if (payload.length == 0 || HEADER_SIZE + payload.length > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Invalid entry size: " + payload.length);
+        }
+        var buffer = segments.get(writeSegment);
+        // Always leave room for an end-of-segment marker
+        if (writeOffset + HEADER_SIZE + payload.length > segmentSize - HEADER_SIZE) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            buffer.putInt(writeOffset, END_OF_SEGMENT);
+            buffer.force(writeOffset, Integer.BYTES);
+            writeSegment++;
+            writeOffset = 0;
+            buffer = map(writeSegment);
+            segments.put(writeSegment, buffer);
+        }
+        buffer.put(writeOffset + HEADER_SIZE, payload);
+        buffer.putInt(writeOffset + 4, crc(payload));
+        buffer.putInt(writeOffset, payload.length);
+        buffer.force(writeOffset, HEADER_SIZE + payload.length);
+        writeOffset += HEADER_SIZE + payload.length;
+        return true;
+    }
+
+    /**
+     * Reads the next unread entry. The entry stays pending until {@link #acknowledge(long)} is called with its
+     * position.
+     *
+     * @return the entry, or empty if all entries have been read
+     */
+    synchronized Optional<Entry> poll() {
+        while (true) {
+            if (readSegment == writeSegment && readOffset >= writeOffset) {
+                return Optional.empty();
+            }
+            final var buffer = segments.get(readSegment);
+            final var length = readOffset + HEADER_SIZE <= segmentSize ? buffer.getInt(readOffset) : 0;
+            if (length <= 0) {
+                // End of a segment that is not the one being written
+                final var next = segments.higherKey(readSegment);
+                if (next == null) {
+                    return Optional.empty();
+                }
+                readSegment = next;
+                readOffset = 0;
+                continue;
+            }
+            final var payload = new byte[length];
+            buffer.get(readOffset + HEADER_SIZE, payload);
+            final var position = position(readSegment, readOffset);
+            readOffset += HEADER_SIZE + length;
+            pending.add(position);
+            return Optional.of(new Entry(position, payload));
+        }
+    }
+
+    /**
+     * Marks the entry at the given position as processed. Once all entries of a segment are processed, the segment is
+     * deleted.
+     *
+     * @param position the position of the entry, as given by {@link Entry#position()}
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized void acknowledge(long position) throws IOException {
+        if (!pending.remove(position)) {
+            return;
+        }
+        final var newCheckpoint = pending.isEmpty() ? position(readSegment, readOffset) : pending.first();
+        if (newCheckpoint == checkpoint) {
+            return;
+        }
+        writeCheckpoint(newCheckpoint);
+        checkpoint = newCheckpoint;
+        while (segments.firstKey() < segmentOf(checkpoint)) {
+            deleteSegment(segments.firstKey());
+        }
+    }
+
+    /**
+     * Appends the entry at the given position to the dead letter file, then acknowledges it. Entries in the dead letter
+     * file use the same format as in segments.
+     *
+     * @param position the position of the entry, as given by {@link Entry#position()}
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized void reject(long position) throws IOException {
+        if (!pending.contains(position)) {
+            return;
+        }
+        final var buffer = segments.get(segmentOf(position));
+        final var offset = offsetOf(position);
+        final var length = buffer.getInt(offset);
+        final var record = ByteBuffer.allocate(HEADER_SIZE + length);
+        record.put(0, buffer, offset, HEADER_SIZE + length);
+        try (final var channel = FileChannel.open(directory.resolve(DEAD_LETTER_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(record);
+            channel.force(true);
+        }
+        deadLetters++;
+        acknowledge(position);
+    }
+
+    /**
+     * Appends the entries of the dead letter file to the journal, in the order they were rejected, and removes them
+     * from the dead letter file. Entries that do not fit in the journal because it is full stay in the dead letter
+     * file. If the bot stops during the replay, an entry may end up both in the journal and in the dead letter file.
+     *
+     * @return the number of entries appended to the journal
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized int replayDeadLetters() throws IOException {
+        final var payloads = readDeadLetters();
+        var replayed = 0;
+        while (replayed < payloads.size() && append(payloads.get(replayed))) {
+            replayed++;
+        }
+        writeDeadLetters(payloads.subList(replayed, payloads.size()));
+        deadLetters = payloads.size() - replayed;
+        return replayed;
+    }
+
+    private List<byte[]> readDeadLetters() throws IOException {
+        final var file = directory.resolve(DEAD_LETTER_FILE);
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        final var buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        final var payloads = new ArrayList<byte[]>();
+        while (buffer.remaining() >= HEADER_SIZE) {
+            final var length = buffer.getInt();
+            final var crc = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+            final var payload = new byte[length];
+            buffer.get(payload);
+            if (crc(payload) != crc) {
+                break;
+            }
+            payloads.add(payload);
+        }
+        return payloads;
+    }
+
+    private void writeDeadLetters(List<byte[]> payloads) throws IOException {
+        final var file = directory.resolve(DEAD_LETTER_FILE);
+        if (payloads.isEmpty()) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        final var tmp = directory.resolve(DEAD_LETTER_FILE + ".tmp");
+        try (final var channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (final var payload : payloads) {
+                channel.write(ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                        .putInt(payload.length)
+                        .putInt(crc(payload))
+                        .put(payload)
+                        .flip());
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the number of entries in the dead letter file
+     */
+    synchronized int deadLetterCount() {
+        return deadLetters;
+    }
+
+    /**
+     * @return the number of entries that have been read but not acknowledged yet
+     */
+    synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+    record Entry(long position, byte[] payload) {}
+}
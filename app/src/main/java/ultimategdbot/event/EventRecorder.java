@@ -0,0 +1,51 @@
+package ultimategdbot.event;
+
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the GD events fired by the event loop to a file, one JSON object per line along with the time it was fired.
+ * Recordings can be read back in order to replay a real sequence of events offline.
+ */
+final class EventRecorder {
+
+    private static final Logger LOGGER = Loggers.getLogger(EventRecorder.class);
+
+    private final EventCodec codec = new EventCodec();
+    private final Path file;
+
+    EventRecorder(Path file) {
+        this.file = file;
+    }
+
+    static List<RecordedEvent> read(Path file) throws IOException {
+        final var codec = new EventCodec();
+        final var events = new ArrayList<RecordedEvent>();
+        for (final var line : Files.readAllLines(file)) {
+            if (!line.isBlank()) {
+                events.add(codec.decodeRecord(line));
+            }
+        }
+        return events;
+    }
+
+    synchronized void record(Object event) {
+        try (final OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            out.write(codec.encodeRecord(System.currentTimeMillis(), event));
+            out.write('\n');
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Unable to record event " + event, e);
+        }
+    }
+
+    record RecordedEvent(long timestamp, Object event) {}
+}
@@ -0,0 +1,45 @@
+package ultimategdbot.event;
+
+import botrino.api.config.ConfigContainer;
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
+import com.github.alex1304.rdi.finder.annotation.RdiService;
+import jdash.client.GDClient;
+import jdash.events.GDEventLoop;
+import jdash.events.producer.GDEventProducer;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.metrics.MeteredEventProducer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Polls Geometry Dash for new events and feeds them to {@link GDEventService}.
+ */
+@RdiService
+public final class GDEventLoopService {
+
+    @RdiFactory
+    public GDEventLoopService(GDClient gdClient, GDEventService gdEventService, ManualEventProducer eventProducer,
+                              ConfigContainer configContainer) {
+        final var config = configContainer.get(UltimateGDBotConfig.class).gd().events();
+        final var recorder = config.recordFile().map(Path::of).map(EventRecorder::new).orElse(null);
+        GDEventLoop.builder(gdClient)
+                .setEventProducers(Set.of(
+                        new MeteredEventProducer("awarded_levels", GDEventProducer.awardedLevels()),
+                        //new MeteredEventProducer("awarded_lists", GDEventProducer.awardedLists()),
+                        new MeteredEventProducer("daily_levels", GDEventProducer.dailyLevels()),
+                        new MeteredEventProducer("event_levels", GDEventProducer.eventLevels()),
+                        new MeteredEventProducer("manual", eventProducer)))
+                .setInterval(Duration.ofSeconds(config.eventLoopIntervalSeconds()))
+                .buildAndStart()
+                .on(Object.class)
+                .doOnNext(event -> {
+                    if (recorder != null) {
+                        recorder.record(event);
+                    }
+                })
+                .subscribe(new GDEventSubscriber(gdEventService, config.dispatchParallelism(),
+                        gdEventService.dispatchStats(), eventProducer::acknowledge, eventProducer::fail));
+    }
+}
@@ -5,18 +5,22 @@ import botrino.api.i18n.Translator;
 import botrino.api.util.MatcherFunction;
 import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import discord4j.common.util.Snowflake;
 import discord4j.core.GatewayDiscordClient;
 import discord4j.core.object.entity.Message;
+import discord4j.core.object.entity.User;
+import discord4j.core.object.entity.channel.PrivateChannel;
 import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.core.spec.MessageCreateFields;
 import discord4j.core.spec.MessageCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
 import discord4j.discordjson.possible.Possible;
 import discord4j.rest.entity.RestChannel;
 import jdash.client.GDClient;
-import jdash.events.GDEventLoop;
+import jdash.common.entity.GDLevel;
 import jdash.events.object.*;
-import jdash.events.producer.GDEventProducer;
 import org.jspecify.annotations.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -25,18 +29,22 @@ import reactor.util.Loggers;
 import reactor.util.retry.Retry;
 import ultimategdbot.config.UltimateGDBotConfig;
 import ultimategdbot.database.GdAwardedLevelDao;
+import ultimategdbot.database.GdBroadcastResultDao;
 import ultimategdbot.database.GdLinkedUserDao;
-import ultimategdbot.database.UserSettings;
-import ultimategdbot.database.UserSettingsDao;
 import ultimategdbot.event.BroadcastResultCache.MessageId;
 import ultimategdbot.exception.CreateMessage500Exception;
+import ultimategdbot.metrics.CacheMetrics;
 import ultimategdbot.service.DefaultTranslator;
 import ultimategdbot.service.GDLevelService;
+import ultimategdbot.service.GDPlayerIndex;
 import ultimategdbot.service.GDUserService;
 import ultimategdbot.util.EmbedType;
+import ultimategdbot.util.RenderScheduler;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static botrino.api.util.MessageUtils.toMessageEditSpec;
 import static reactor.function.TupleUtils.function;
@@ -50,14 +58,23 @@ public final class GDEventService {
     private final GDClient gdClient;
     private final GDLevelService levelService;
     private final GDUserService userService;
+    private final GDPlayerIndex playerIndex;
     private final GdLinkedUserDao gdLinkedUserDao;
     private final GdAwardedLevelDao gdAwardedLevelDao;
-    private final UserSettingsDao userSettingsDao;
     private final GatewayDiscordClient gateway;
     private final Translator tr;
 
-    private final BroadcastResultCache broadcastResultCache = new BroadcastResultCache();
-    private final @Nullable CrosspostQueue crosspostQueue;
+    private final BroadcastResultCache broadcastResultCache;
+    private final Cache<Long, Object> orderingKeysByLevelId = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofDays(3))
+            .build();
+    private final Cache<Long, Snowflake> dmChannelIdsByUserId = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofDays(1))
+            .recordStats(() -> new CacheMetrics("dm_channels"))
+            .build();
+    private final DispatchStats dispatchStats = new DispatchStats();
+    private final @Nullable CrosspostScheduler crosspostScheduler;
 
     private final List<RestChannel> ratesChannels;
     private final List<RestChannel> demonsChannels;
@@ -66,23 +83,27 @@ public final class GDEventService {
     private final UltimateGDBotConfig.GD.Events.RandomMessages publicRandomMessages;
     private final UltimateGDBotConfig.GD.Events.@Nullable RandomMessages dmRandomMessages;
     private final GDEventMapper eventMapper = new GDEventMapper();
-    private long ratesChannelRotator;
-    private long demonsChannelRotator;
+    private final Map<Snowflake, AtomicInteger> pendingSendsByChannel = new ConcurrentHashMap<>();
+    private final ChannelSelector ratesChannelSelector;
+    private final ChannelSelector demonsChannelSelector;
+    private final int rateBatchSize;
+    private final Duration rateBatchWindow;
 
     @RdiFactory
     public GDEventService(GDClient gdClient, GDLevelService levelService, GDUserService userService,
-                          GdLinkedUserDao gdLinkedUserDao,
-                          GdAwardedLevelDao gdAwardedLevelDao,
+                          GDPlayerIndex playerIndex, GdLinkedUserDao gdLinkedUserDao,
+                          GdAwardedLevelDao gdAwardedLevelDao, GdBroadcastResultDao gdBroadcastResultDao,
                           ConfigContainer configContainer, GatewayDiscordClient gateway,
-                          DefaultTranslator tr, ManualEventProducer eventProducer, UserSettingsDao userSettingsDao) {
+                          DefaultTranslator tr) {
         this.gdClient = gdClient;
         this.levelService = levelService;
         this.userService = userService;
+        this.playerIndex = playerIndex;
         this.gdLinkedUserDao = gdLinkedUserDao;
         this.gdAwardedLevelDao = gdAwardedLevelDao;
-        this.userSettingsDao = userSettingsDao;
         this.gateway = gateway;
         this.tr = tr;
+        this.broadcastResultCache = new BroadcastResultCache(gdBroadcastResultDao);
         final var config = configContainer.get(UltimateGDBotConfig.class).gd().events();
         this.ratesChannels = config.ratesChannelIds().stream()
                 .map(v -> RestChannel.create(gateway.rest(), Snowflake.of(v)))
@@ -96,91 +117,253 @@ public final class GDEventService {
         this.modsChannel = config.modsChannelId()
                 .map(v -> RestChannel.create(gateway.rest(), Snowflake.of(v)))
                 .orElse(null);
-        this.crosspostQueue = config.crosspost() ? new CrosspostQueue(tr) : null;
+        this.crosspostScheduler = config.crosspost() ? new CrosspostScheduler(tr) : null;
+        this.ratesChannelSelector = channelSelector(config.channelSelection());
+        this.demonsChannelSelector = channelSelector(config.channelSelection());
+        this.rateBatchSize = config.rateBatching().enabled()
+                ? Math.max(1, Math.min(MessageBatch.MAX_EMBEDS, config.rateBatching().maxEmbeds()))
+                : 1;
+        this.rateBatchWindow = Duration.ofMillis(config.rateBatching().windowMillis());
         this.publicRandomMessages = config.publicRandomMessages();
         this.dmRandomMessages = config.dmRandomMessages().orElse(null);
-        GDEventLoop.builder(gdClient)
-                .setEventProducers(Set.of(
-                        GDEventProducer.awardedLevels(),
-                        //GDEventProducer.awardedLists(),
-                        GDEventProducer.dailyLevels(),
-                        GDEventProducer.eventLevels(),
-                        eventProducer))
-                .setInterval(Duration.ofSeconds(config.eventLoopIntervalSeconds()))
-                .buildAndStart()
-                .on(Object.class)
-                .subscribe(new GDEventSubscriber(this));
+    }
+
+    private ChannelSelector channelSelector(UltimateGDBotConfig.GD.Events.ChannelSelection strategy) {
+        return switch (strategy) {
+            case ROUND_ROBIN -> ChannelSelector.roundRobin();
+            case LEAST_LOADED -> ChannelSelector.leastLoaded(this::channelLoad);
+        };
+    }
+
+    private int channelLoad(Snowflake channelId) {
+        final var pendingSends = pendingSendsByChannel.get(channelId);
+        return (pendingSends == null ? 0 : pendingSends.get())
+                + (crosspostScheduler == null ? 0 : crosspostScheduler.load(channelId));
     }
 
     private static String randomString(List<String> list) {
         return list.get(RANDOM.nextInt(list.size()));
     }
 
-    public Mono<Void> process(Object event) {
+    public DispatchStats dispatchStats() {
+        return dispatchStats;
+    }
+
+    /**
+     * Selects the channel the given event should be broadcast to, and determines the key used to preserve ordering
+     * with other events. Must be called in the same order as the events were fired.
+     *
+     * @param event the event to route
+     * @return the routed event, or empty if the event type is not recognized
+     */
+    Optional<RoutedEvent> route(Object event) {
         final var gdEvent = eventMapper.get(event.getClass()).orElse(null);
         if (gdEvent == null) {
             LOGGER.warn("Unrecognized event type: {}", event.getClass().getName());
-            return Mono.empty();
+            return Optional.empty();
         }
+        final var levelId = gdEvent.levelId(event);
         if (gdEvent.isUpdate()) {
-            final var doUpdate = Mono.justOrEmpty(gdEvent.levelId(event).flatMap(broadcastResultCache::get))
+            final var key = levelId.map(orderingKeysByLevelId::getIfPresent).orElse(null);
+            return Optional.of(new RoutedEvent(event, gdEvent, null, key != null ? key : event.getClass()));
+        }
+        final var channel = gdEvent.channel(event);
+        if (channel != null) {
+            pendingSendsByChannel.computeIfAbsent(channel.getId(), __ -> new AtomicInteger()).incrementAndGet();
+        }
+        final Object key = channel != null ? channel.getId().asLong() : event.getClass();
+        levelId.ifPresent(id -> orderingKeysByLevelId.put(id, key));
+        return Optional.of(new RoutedEvent(event, gdEvent, channel, key));
+    }
+
+    Mono<Void> process(RoutedEvent routed) {
+        final var event = routed.event();
+        final var gdEvent = routed.gdEvent();
+        // Rendered once, then reused for the guild message, every DM and every edited message
+        final var template = renderTemplate(routed);
+        if (gdEvent.isUpdate()) {
+            final var doUpdate = Mono.justOrEmpty(gdEvent.levelId(event)).flatMap(broadcastResultCache::get)
                     .flatMapMany(Flux::fromIterable)
-                    .flatMap(old -> gdEvent.createMessageTemplate(event)
-                            .map(spec -> {
-                                final var editSpec = toMessageEditSpec(spec)
-                                        // Workaround to issue https://github.com/Discord4J/Discord4J#1334
-                                        .withComponents(Possible.absent())
-                                        .withAttachments(Possible.absent());
-                                //noinspection ConstantConditions
-                                if (editSpec.contentOrElse(null) == null) {
-                                    return editSpec.withContent(Possible.absent());
-                                }
-                                return editSpec;
-                            })
-                            .flatMap(spec -> old.toMessage(gateway).flatMap(msg -> msg.edit(spec))))
+                    .flatMap(old -> template
+                            .flatMap(t -> old.toMessage(gateway).flatMap(msg -> msg.edit(old.isBatched()
+                                    ? MessageBatch.replaceEmbed(msg, old.embedIndex(), t,
+                                    Long.toString(System.currentTimeMillis(), 36))
+                                    : toEditSpec(t))))
+                            .thenReturn(old))
                     .collectList()
                     .filter(results -> !results.isEmpty())
-                    .doOnNext(results -> gdEvent.levelId(event).ifPresent(id -> cacheMessage(id, results)))
+                    .doOnNext(results -> gdEvent.levelId(event).ifPresent(id -> broadcastResultCache.put(id, results)))
                     .then();
-            return Mono.fromRunnable(() -> doUpdate.subscribe(null,
-                    t -> LOGGER.error("Unable to update message for event " + event, t),
-                    () -> LOGGER.info("Successfully updated message for event {}", event)));
+            return doUpdate.onErrorResume(t -> Mono.fromRunnable(
+                    () -> LOGGER.error("Unable to update message for event " + event, t)));
         }
-        final var sendGuild = Mono.defer(() -> gdEvent.createMessageTemplate(event))
-                .flatMap(msg -> Mono.justOrEmpty(gdEvent.channel(event))
-                        .flatMap(channel -> channel.createMessage(msg.asRequest()))
-                        .map(data -> new Message(gateway, data)))
+        final var sendGuild = Mono.justOrEmpty(routed.channel())
+                .flatMap(channel -> sendGuild(channel, template.map(MessageTemplate::toSpec), event))
+                .map(msg -> new MessageId(msg.getChannelId(), msg.getId()));
+        return Flux.concat(sendGuild, sendDm(routed, template))
+                .collectList()
+                .doOnNext(results -> gdEvent.levelId(event).ifPresent(id -> broadcastResultCache.put(id, results)))
+                .doFinally(__ -> onSent(routed))
+                .then();
+    }
+
+    /**
+     * Sends the given events as a single message containing the embed of each event, in order. If their attachments do
+     * not fit in a single message, the events are split over as few consecutive messages as possible. All events must
+     * be {@link #isBatchable(RoutedEvent) batchable} and target the same channel. DMs are still sent separately for
+     * each event.
+     *
+     * @param batch the events to send
+     * @return a Mono completing when the messages and the DMs have been sent
+     */
+    Mono<Void> processBatch(List<RoutedEvent> batch) {
+        final var channel = Objects.requireNonNull(batch.get(0).channel());
+        return Flux.fromIterable(batch)
+                .flatMapSequential(this::renderTemplate)
+                .collectList()
+                .flatMapMany(templates -> {
+                    final var sends = new ArrayList<Mono<Void>>();
+                    var from = 0;
+                    for (final var group : MessageBatch.partition(templates)) {
+                        sends.add(sendBatch(channel, batch.subList(from, from + group.size()), group));
+                        from += group.size();
+                    }
+                    return Flux.concat(sends);
+                })
+                .doFinally(__ -> batch.forEach(this::onSent))
+                .then();
+    }
+
+    private Mono<Void> sendBatch(RestChannel channel, List<RoutedEvent> batch, List<MessageTemplate> templates) {
+        final var events = batch.stream().map(RoutedEvent::event).toList();
+        final var sendGuild = sendGuild(channel, Mono.fromCallable(() -> MessageBatch.combine(templates)), events)
+                .cache();
+        return Flux.range(0, batch.size())
+                .flatMap(i -> {
+                    final var routed = batch.get(i);
+                    return Flux.concat(sendGuild.map(msg -> new MessageId(msg.getChannelId(), msg.getId(), i)),
+                                    sendDm(routed, Mono.just(templates.get(i))))
+                            .collectList()
+                            .doOnNext(results -> routed.gdEvent().levelId(routed.event())
+                                    .ifPresent(id -> broadcastResultCache.put(id, results)));
+                })
+                .then();
+    }
+
+    /**
+     * Whether the given event may be sent together with other events in a single message, when rate batching is
+     * enabled.
+     *
+     * @param routed the routed event
+     * @return a boolean
+     */
+    boolean isBatchable(RoutedEvent routed) {
+        return rateBatchSize > 1 && routed.event() instanceof AwardedLevelAdd && routed.channel() != null;
+    }
+
+    /**
+     * @return the maximum number of events sent in a single message, 1 if rate batching is disabled
+     */
+    int rateBatchSize() {
+        return rateBatchSize;
+    }
+
+    /**
+     * @return how long to wait for more events to batch together
+     */
+    Duration rateBatchWindow() {
+        return rateBatchWindow;
+    }
+
+    /**
+     * Releases an event returned by {@link #route(Object)} that will not be processed, so that its channel is no longer
+     * counted as having a pending send.
+     *
+     * @param routed the routed event
+     */
+    void cancel(RoutedEvent routed) {
+        onSent(routed);
+    }
+
+    private Mono<MessageTemplate> renderTemplate(RoutedEvent routed) {
+        return Mono.defer(() -> routed.gdEvent().createMessageTemplate(routed.event()))
+                .flatMap(MessageTemplate::of)
+                .contextWrite(RenderScheduler.broadcastPriority())
+                .cache();
+    }
+
+    private static MessageEditSpec toEditSpec(MessageTemplate template) {
+        final var editSpec = toMessageEditSpec(template.toSpec())
+                // Workaround to issue https://github.com/Discord4J/Discord4J#1334
+                .withComponents(Possible.absent())
+                .withAttachments(Possible.absent());
+        //noinspection ConstantConditions
+        if (editSpec.contentOrElse(null) == null) {
+            return editSpec.withContent(Possible.absent());
+        }
+        return editSpec;
+    }
+
+    private Mono<Message> sendGuild(RestChannel channel, Mono<MessageCreateSpec> spec, Object event) {
+        return spec
+                .flatMap(s -> channel.createMessage(s.asRequest()))
+                .map(data -> new Message(gateway, data))
                 .retryWhen(Retry.backoff(5, Duration.ofSeconds(2))
                         .filter(CreateMessage500Exception.class::isInstance))
                 .doOnNext(msg -> {
-                    if (crosspostQueue != null) {
-                        crosspostQueue.submit(msg, event);
+                    if (crosspostScheduler != null) {
+                        crosspostScheduler.submit(channel, msg, event);
                     }
                 });
-        final var sendDm = dmRandomMessages == null ? Flux.<Message>empty() : gdEvent.recipientAccountId(event)
-                .flatMapMany(gdLinkedUserDao::getDiscordAccountsForGDUser)
-                .filterWhen(userId -> userSettingsDao.getById(userId).map(UserSettings::receiveDmOnEvent))
-                .flatMap(userId -> gateway.getUserById(Snowflake.of(userId)))
-                .flatMap(user -> user.getPrivateChannel()
-                        .flatMap(channel -> gdEvent.createMessageTemplate(event)
-                                .map(msg -> msg.withContent(gdEvent.congratMessage(event)))
-                                .flatMap(channel::createMessage)))
+    }
+
+    private Flux<MessageId> sendDm(RoutedEvent routed, Mono<MessageTemplate> template) {
+        if (dmRandomMessages == null) {
+            return Flux.empty();
+        }
+        final var event = routed.event();
+        final var gdEvent = routed.gdEvent();
+        return gdEvent.recipientAccountId(event)
+                .flatMapMany(gdLinkedUserDao::getDmRecipientsForGDUser)
+                .flatMap(userId -> dmChannelId(userId)
+                        .flatMap(channelId -> template
+                                .map(t -> t.toSpec().withContent(gdEvent.congratMessage(event)))
+                                .flatMap(spec -> RestChannel.create(gateway.rest(), channelId)
+                                        .createMessage(spec.asRequest()))
+                                .map(data -> new Message(gateway, data))
+                                .map(msg -> new MessageId(msg.getChannelId(), msg.getId()))))
                 .onErrorResume(e -> Mono.fromRunnable(() -> LOGGER.debug("Could not DM user for GD event", e)));
-        return Flux.concat(sendGuild, sendDm)
-                .collectList()
-                .doOnNext(results -> gdEvent.levelId(event)
-                        .ifPresent(id -> cacheMessage(id, results)))
-                .then();
     }
 
-    public void cacheMessage(long levelId, Snowflake channelId, Snowflake messageId) {
-        broadcastResultCache.put(levelId, List.of(new MessageId(channelId, messageId)));
+    private void onSent(RoutedEvent routed) {
+        if (routed.channel() != null) {
+            pendingSendsByChannel.get(routed.channel().getId()).decrementAndGet();
+        }
+    }
+
+    private Mono<Snowflake> dmChannelId(long userId) {
+        final var cached = dmChannelIdsByUserId.getIfPresent(userId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return gateway.getUserById(Snowflake.of(userId))
+                .flatMap(User::getPrivateChannel)
+                .map(PrivateChannel::getId)
+                .doOnNext(channelId -> dmChannelIdsByUserId.put(userId, channelId));
+    }
+
+    /**
+     * Finds the account ID of the creator of the given level. The one sent by GD along with the level is used when
+     * available, so that the player index is only looked up for levels that come without it.
+     */
+    private Mono<Long> creatorAccountId(GDLevel level) {
+        return Mono.justOrEmpty(level.creatorAccountId())
+                .filter(accountId -> accountId > 0)
+                .switchIfEmpty(Mono.defer(() -> playerIndex.accountIdOf(level.creatorPlayerId())));
     }
 
-    private void cacheMessage(long levelId, List<Message> results) {
-        broadcastResultCache.put(levelId, results.stream()
-                .map(msg -> new MessageId(msg.getChannelId(), msg.getId()))
-                .toList());
+    public void cacheMessage(long levelId, Snowflake channelId, Snowflake messageId) {
+        broadcastResultCache.put(levelId, List.of(new MessageId(channelId, messageId)));
     }
 
     @SuppressWarnings("DataFlowIssue")
@@ -190,15 +373,11 @@ public final class GDEventService {
             return ImmutableGDEvent
                     .<AwardedLevelAdd>builder()
                     .channel(event -> event.addedLevel().isDemon()
-                            ? demonsChannels.isEmpty() ? null :
-                            demonsChannels.get((int) (demonsChannelRotator++ % demonsChannels.size()))
-                            : ratesChannels.isEmpty() ? null :
-                            ratesChannels.get((int) (ratesChannelRotator++ % ratesChannels.size())))
+                            ? demonsChannelSelector.select(demonsChannels)
+                            : ratesChannelSelector.select(ratesChannels))
                     .levelIdGetter(event -> Optional.of(event.addedLevel().id()))
-                    .recipientAccountId(event -> gdAwardedLevelDao.saveEvent(event).then(gdClient
-                            .searchUsers("" + event.addedLevel().creatorPlayerId(), 0)
-                            .next()
-                            .map(stats -> stats.user().accountId())))
+                    .recipientAccountId(event -> gdAwardedLevelDao.saveEvent(event)
+                            .then(creatorAccountId(event.addedLevel())))
                     .messageTemplateFactory(event -> levelService
                             .compactEmbed(tr, event.addedLevel(), EmbedType.RATE, null)
                             .map(function((EmbedCreateSpec embed,
@@ -215,15 +394,10 @@ public final class GDEventService {
             return ImmutableGDEvent
                     .<AwardedLevelRemove>builder()
                     .channel(event -> event.removedLevel().isDemon()
-                            ? demonsChannels.isEmpty() ? null :
-                            demonsChannels.get((int) (demonsChannelRotator++ % demonsChannels.size()))
-                            : ratesChannels.isEmpty() ? null :
-                            ratesChannels.get((int) (ratesChannelRotator++ % ratesChannels.size())))
+                            ? demonsChannelSelector.select(demonsChannels)
+                            : ratesChannelSelector.select(ratesChannels))
                     .levelIdGetter(event -> Optional.empty())
-                    .recipientAccountId(event -> gdClient
-                            .searchUsers("" + event.removedLevel().creatorPlayerId(), 0)
-                            .next()
-                            .map(stats -> stats.user().accountId()))
+                    .recipientAccountId(event -> creatorAccountId(event.removedLevel()))
                     .messageTemplateFactory(event -> levelService
                             .compactEmbed(tr, event.removedLevel(), EmbedType.UNRATE, null)
                             .map(function((EmbedCreateSpec embed,
@@ -241,10 +415,7 @@ public final class GDEventService {
                     .<AwardedLevelUpdate>builder()
                     .channel(event -> {throw new UnsupportedOperationException();})
                     .levelIdGetter(event -> Optional.of(event.newData().id()))
-                    .recipientAccountId(event -> gdClient
-                            .searchUsers("" + event.newData().creatorPlayerId(), 0)
-                            .next()
-                            .map(stats -> stats.user().accountId()))
+                    .recipientAccountId(event -> creatorAccountId(event.newData()))
                     .messageTemplateFactory(event -> levelService
                             .compactEmbed(tr, event.newData(), EmbedType.RATE, null)
                             .map(function((EmbedCreateSpec embed,
@@ -264,9 +435,7 @@ public final class GDEventService {
                     .recipientAccountId(event -> (event.isWeekly() ?
                             gdClient.downloadWeeklyDemon() :
                             gdClient.downloadDailyLevel())
-                            .map(dl -> dl.level().creatorPlayerId())
-                            .flatMap(playerId -> gdClient.searchUsers("" + playerId, 0).next())
-                            .map(stats -> stats.user().accountId()))
+                            .flatMap(dl -> creatorAccountId(dl.level())))
                     .messageTemplateFactory(event -> (event.isWeekly() ?
                             gdClient.withWriteOnlyCache().downloadWeeklyDemon() :
                             gdClient.withWriteOnlyCache().downloadDailyLevel())
@@ -294,9 +463,7 @@ public final class GDEventService {
                     .channel(event -> timelyChannel)
                     .levelIdGetter(event -> Optional.empty())
                     .recipientAccountId(event -> (gdClient.downloadEventLevel())
-                            .map(dl -> dl.level().creatorPlayerId())
-                            .flatMap(playerId -> gdClient.searchUsers("" + playerId, 0).next())
-                            .map(stats -> stats.user().accountId()))
+                            .flatMap(dl -> creatorAccountId(dl.level())))
                     .messageTemplateFactory(event -> gdClient.withWriteOnlyCache().downloadEventLevel()
                             .flatMap(dl -> levelService
                                     .compactEmbed(tr, dl.level(), EmbedType.EVENT_LEVEL,
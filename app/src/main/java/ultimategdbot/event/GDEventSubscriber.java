@@ -1,40 +1,146 @@
 package ultimategdbot.event;
 
-import org.jspecify.annotations.Nullable;
 import org.reactivestreams.Subscription;
 import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.util.Logger;
 import reactor.util.Loggers;
+import ultimategdbot.metrics.Metrics;
 
-import java.util.Objects;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
+/**
+ * Dispatches GD events concurrently, up to the configured parallelism. Events are sharded by their ordering key (which
+ * is typically the channel they are broadcast to), so that events targeting the same channel are still processed in
+ * the order they were fired. Events that are successfully processed, as well as events that are not routed anywhere,
+ * are passed to the given acknowledgement callback. Events whose processing failed, or that could not be queued for
+ * dispatch, are passed to the given failure callback instead, along with the error, which decides whether they should
+ * be retried.
+ * <p>
+ * When rate batching is enabled, events of a lane are buffered for a short window, and consecutive batchable events
+ * are sent together as a single message.
+ */
 class GDEventSubscriber extends BaseSubscriber<Object> {
 
     private static final Logger LOGGER = Loggers.getLogger(GDEventSubscriber.class);
+
     private final GDEventService gdEventService;
+    private final int parallelism;
+    private final DispatchStats stats;
+    private final Consumer<Object> acknowledger;
+    private final BiConsumer<Object, Throwable> failureHandler;
     private final Scheduler scheduler = Schedulers.boundedElastic();
-    private volatile @Nullable Subscription subscription;
+    private final Map<Object, Sinks.Many<Task>> lanes = new ConcurrentHashMap<>();
 
-    GDEventSubscriber(GDEventService gdEventService) {
+    GDEventSubscriber(GDEventService gdEventService, int parallelism, DispatchStats stats,
+                      Consumer<Object> acknowledger, BiConsumer<Object, Throwable> failureHandler) {
         this.gdEventService = gdEventService;
+        this.parallelism = Math.max(1, parallelism);
+        this.stats = stats;
+        this.acknowledger = acknowledger;
+        this.failureHandler = failureHandler;
     }
 
     @Override
     public void hookOnSubscribe(Subscription s) {
-        this.subscription = s;
-        s.request(1);
+        // Enough events must be in flight for a lane to fill a batch
+        s.request((long) parallelism * gdEventService.rateBatchSize());
     }
 
     @Override
     public void hookOnNext(Object t) {
         LOGGER.info("GD event fired: {}", t);
-        gdEventService.process(t)
-                .subscribeOn(scheduler)
-                .doFinally(__ -> Objects.requireNonNull(subscription).request(1))
-                .subscribe(null,
-                        e -> LOGGER.error("An error occurred while dispatching GD event", e),
-                        () -> LOGGER.info("Successfully processed event {}", t));
+        final var routed = gdEventService.route(t).orElse(null);
+        if (routed == null) {
+            acknowledger.accept(t);
+            request(1);
+            return;
+        }
+        stats.onReceived();
+        final var result = lanes.computeIfAbsent(routed.orderingKey(), this::openLane)
+                .tryEmitNext(new Task(routed, System.nanoTime()));
+        if (result.isFailure()) {
+            LOGGER.error("Unable to queue event {} for dispatch: {}", t, result);
+            gdEventService.cancel(routed);
+            stats.onStarted();
+            stats.onFinished(0, false);
+            failureHandler.accept(t, new IllegalStateException("Unable to queue event for dispatch: " + result));
+            request(1);
+        }
+    }
+
+    private Sinks.Many<Task> openLane(Object key) {
+        final Sinks.Many<Task> lane = Sinks.many().unicast().onBackpressureBuffer();
+        final var batchSize = gdEventService.rateBatchSize();
+        final Flux<List<Task>> groups = batchSize > 1
+                ? lane.asFlux()
+                        .bufferTimeout(batchSize, gdEventService.rateBatchWindow(), true)
+                        .concatMapIterable(this::groupBatchable)
+                : lane.asFlux().map(List::of);
+        groups.concatMap(group -> Mono.fromRunnable(() -> group.forEach(__ -> stats.onStarted()))
+                        .then(Mono.defer(() -> group.size() == 1
+                                ? gdEventService.process(group.get(0).routed)
+                                : gdEventService.processBatch(group.stream().map(Task::routed).toList())))
+                        .subscribeOn(scheduler)
+                        .then(Mono.fromRunnable(() -> group.forEach(task -> onDone(task, null))))
+                        .onErrorResume(e -> Mono.fromRunnable(() -> group.forEach(task -> onDone(task, e)))))
+                .subscribe();
+        LOGGER.debug("Opened GD event dispatch lane for key {}", key);
+        return lane;
+    }
+
+    /**
+     * Splits the buffered tasks into groups that are processed one after the other: each run of consecutive
+     * batchable events forms a single group, and every other event forms a group of its own.
+     */
+    private List<List<Task>> groupBatchable(List<Task> tasks) {
+        final var groups = new ArrayList<List<Task>>();
+        var run = new ArrayList<Task>();
+        for (final var task : tasks) {
+            if (gdEventService.isBatchable(task.routed)) {
+                run.add(task);
+                continue;
+            }
+            if (!run.isEmpty()) {
+                groups.add(run);
+                run = new ArrayList<>();
+            }
+            groups.add(List.of(task));
+        }
+        if (!run.isEmpty()) {
+            groups.add(run);
+        }
+        return groups;
+    }
+
+    private void onDone(Task task, Throwable error) {
+        final var latency = System.nanoTime() - task.receivedAt;
+        stats.onFinished(latency, error == null);
+        Metrics.timer("ugdb_gd_event_dispatch_duration_seconds",
+                        "Time between the reception of a GD event and the end of its broadcast.",
+                        "event", task.routed.event().getClass().getSimpleName(),
+                        "outcome", error == null ? "success" : "error")
+                .record(latency);
+        if (error == null) {
+            acknowledger.accept(task.routed.event());
+            LOGGER.info("Successfully processed event {} in {} ms", task.routed.event(),
+                    Duration.ofNanos(latency).toMillis());
+        } else {
+            LOGGER.error("An error occurred while dispatching GD event " + task.routed.event(), error);
+            failureHandler.accept(task.routed.event(), error);
+        }
+        request(1);
     }
+
+    private record Task(RoutedEvent routed, long receivedAt) {}
 }
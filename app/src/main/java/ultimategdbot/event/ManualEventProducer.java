@@ -1,35 +1,259 @@
 package ultimategdbot.event;
 
+import botrino.api.config.ConfigContainer;
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
+import discord4j.rest.http.client.ClientException;
 import jdash.client.GDClient;
+import jdash.client.exception.ActionFailedException;
 import jdash.events.producer.GDEventProducer;
 import reactor.core.publisher.Flux;
 import reactor.util.Logger;
 import reactor.util.Loggers;
-import reactor.util.concurrent.Queues;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.metrics.Counter;
+import ultimategdbot.metrics.Metrics;
 
-import java.util.Queue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Produces events that are submitted manually, for example by bot administrators. Submitted events are written to an
+ * on-disk journal and are only removed from it once they are acknowledged, so they survive restarts and bursts of any
+ * size. Each poll of the event loop drains a limited number of events, so that large bursts are spread over time.
+ * <p>
+ * Events whose processing failed for a reason that may be temporary, such as a timeout or a rate limit, stay pending in
+ * the journal and are produced again after an exponential backoff. Events that can never be processed, such as
+ * unreadable ones or ones referring to a channel or level that no longer exists, are moved to the dead letter file of
+ * the journal, from which they can be replayed with {@link #replayDeadLetters()}.
+ */
 @RdiService
 public final class ManualEventProducer implements GDEventProducer {
 
     private static final Logger LOGGER = Loggers.getLogger(ManualEventProducer.class);
+    private static final Counter RETRIED = Metrics.counter("ugdb_manual_events_retried_total",
+            "Number of manual events scheduled for a retry after a temporary failure.");
+    private static final Counter DEAD_LETTERED = Metrics.counter("ugdb_manual_events_dead_lettered_total",
+            "Number of manual events moved to the dead letter file after a permanent failure.");
 
-    private final Queue<Object> queue = Queues.small().get();
+    private final EventJournal journal;
+    private final int maxEventsPerPoll;
+    private final Duration minRetryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Clock clock;
+    private final EventCodec codec = new EventCodec();
+    private final Map<Object, EventJournal.Entry> entries = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+    private final PriorityQueue<Retry> retries = new PriorityQueue<>(Comparator.comparing(Retry::dueAt));
+
+    ManualEventProducer(EventJournal journal, int maxEventsPerPoll, Duration minRetryBackoff,
+                        Duration maxRetryBackoff, Clock clock) {
+        this.journal = journal;
+        this.maxEventsPerPoll = maxEventsPerPoll;
+        this.minRetryBackoff = minRetryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.clock = clock;
+        Metrics.gauge("ugdb_manual_event_dead_letters", "Number of manual events in the dead letter file.",
+                journal::deadLetterCount);
+    }
+
+    @RdiFactory
+    public static ManualEventProducer create(ConfigContainer configContainer) {
+        final var config = configContainer.get(UltimateGDBotConfig.class).gd().events().journal();
+        final EventJournal journal;
+        try {
+            journal = EventJournal.open(Path.of(config.directory()), config.segmentSizeKb() * 1024,
+                    config.maxSegments());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open the manual event journal", e);
+        }
+        if (journal.deadLetterCount() > 0) {
+            LOGGER.warn("The manual event journal has {} events in its dead letter file",
+                    journal.deadLetterCount());
+        }
+        return new ManualEventProducer(journal, config.maxEventsPerPoll(),
+                Duration.ofSeconds(config.retryMinBackoffSeconds()),
+                Duration.ofSeconds(config.retryMaxBackoffSeconds()), Clock.systemUTC());
+    }
+
+    /**
+     * Whether the given error means that the event can never be processed, so that retrying it is pointless.
+     *
+     * @param error the error that caused the event to fail
+     * @return a boolean
+     */
+    static boolean isPermanent(Throwable error) {
+        for (var e = error; e != null; e = e.getCause()) {
+            if (e instanceof ClientException clientException) {
+                // Missing channel or message, or missing access to them
+                final var status = clientException.getStatus().code();
+                return status == 403 || status == 404;
+            }
+            if (e instanceof ActionFailedException) {
+                // GD does not know the requested level
+                return true;
+            }
+        }
+        return false;
+    }
 
     @Override
     public Flux<Object> produce(GDClient client) {
-        return Flux.create(sink -> {
-            while (!queue.isEmpty()) {
-                sink.next(queue.poll());
+        return Flux.generate(() -> 0, (produced, sink) -> {
+            while (true) {
+                final var entry = produced < maxEventsPerPoll ? nextEntry() : null;
+                if (entry == null) {
+                    sink.complete();
+                    return produced;
+                }
+                try {
+                    final var event = codec.decode(entry.payload());
+                    entries.put(event, entry);
+                    sink.next(event);
+                    return produced + 1;
+                } catch (IOException e) {
+                    LOGGER.error("Moving unreadable event to the dead letter file of the manual event journal", e);
+                    rejectPosition(entry.position());
+                }
             }
-            sink.complete();
         });
     }
 
-    public void submit(Object event) {
-        if (!queue.offer(event)) {
-            LOGGER.warn("Failed to submit event {}: manual event producer queue is full", event);
+    private EventJournal.Entry nextEntry() {
+        synchronized (retries) {
+            final var retry = retries.peek();
+            if (retry != null && !retry.dueAt().isAfter(clock.instant())) {
+                return retries.remove().entry();
+            }
+        }
+        return journal.poll().orElse(null);
+    }
+
+    public boolean submit(Object event) {
+        try {
+            if (journal.append(codec.encode(event))) {
+                return true;
+            }
+            LOGGER.warn("Failed to submit event {}: manual event journal is full", event);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.error("Failed to submit event " + event, e);
         }
+        return false;
     }
+
+    /**
+     * Submits the given events in order, stopping at the first one that cannot be submitted.
+     *
+     * @param events the events to submit
+     * @return the number of events that were submitted
+     */
+    public int submitAll(List<?> events) {
+        var submitted = 0;
+        for (final var event : events) {
+            if (!submit(event)) {
+                break;
+            }
+            submitted++;
+        }
+        return submitted;
+    }
+
+    /**
+     * Marks the given event as processed, so that it is not produced again after a restart. Does nothing if the event
+     * was not emitted by this producer.
+     *
+     * @param event the event
+     */
+    public void acknowledge(Object event) {
+        final var entry = entries.remove(event);
+        if (entry != null) {
+            attempts.remove(entry.position());
+            acknowledgePosition(entry.position());
+        }
+    }
+
+    /**
+     * Reports that the processing of the given event failed. If the error is {@link #isPermanent(Throwable)
+     * permanent}, the event is moved to the dead letter file of the journal, so that it does not prevent the journal
+     * from reclaiming space. Otherwise, the event stays pending and is produced again after a delay that doubles with
+     * each failure. Does nothing if the event was not emitted by this producer.
+     *
+     * @param event the event
+     * @param error the error that caused the event to fail
+     */
+    public void fail(Object event, Throwable error) {
+        final var entry = entries.remove(event);
+        if (entry == null) {
+            return;
+        }
+        if (isPermanent(error)) {
+            LOGGER.warn("Moving event {} to the dead letter file of the manual event journal: {}", event,
+                    error.toString());
+            rejectPosition(entry.position());
+            return;
+        }
+        final var attempt = attempts.merge(entry.position(), 1, Integer::sum);
+        final var backoff = backoff(attempt);
+        LOGGER.warn("Event {} failed {} time(s), retrying in {}: {}", event, attempt, backoff, error.toString());
+        RETRIED.increment();
+        synchronized (retries) {
+            retries.add(new Retry(entry, clock.instant().plus(backoff)));
+        }
+    }
+
+    private Duration backoff(int attempt) {
+        final var backoff = minRetryBackoff.multipliedBy(1L << Math.min(attempt - 1, 30));
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+
+    /**
+     * Submits again the events of the dead letter file, so that they are produced again.
+     *
+     * @return the number of events submitted again
+     * @throws IOException if an I/O error occurs
+     */
+    public int replayDeadLetters() throws IOException {
+        final var replayed = journal.replayDeadLetters();
+        LOGGER.info("Replayed {} events from the dead letter file of the manual event journal, {} remaining",
+                replayed, journal.deadLetterCount());
+        return replayed;
+    }
+
+    /**
+     * @return the number of events in the dead letter file
+     */
+    public int deadLetterCount() {
+        return journal.deadLetterCount();
+    }
+
+    private void rejectPosition(long position) {
+        attempts.remove(position);
+        try {
+            journal.reject(position);
+            DEAD_LETTERED.increment();
+        } catch (IOException e) {
+            LOGGER.error("Failed to reject event in manual event journal", e);
+        }
+    }
+
+    private void acknowledgePosition(long position) {
+        try {
+            journal.acknowledge(position);
+        } catch (IOException e) {
+            LOGGER.error("Failed to acknowledge event in manual event journal", e);
+        }
+    }
+
+    private record Retry(EventJournal.Entry entry, Instant dueAt) {}
 }
@@ -0,0 +1,256 @@
+package ultimategdbot.event;
+
+import discord4j.core.object.Embed;
+import discord4j.core.object.entity.Attachment;
+import discord4j.core.object.entity.Message;
+import discord4j.core.spec.EmbedCreateFields;
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.core.spec.MessageCreateFields;
+import discord4j.core.spec.MessageCreateSpec;
+import discord4j.core.spec.MessageEditSpec;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Combines the embeds of several rendered messages into a single message, and replaces individual embeds of such a
+ * message afterwards. Attachments are renamed so that the embeds of different templates do not conflict, and identical
+ * attachments are only uploaded once. Combined messages never exceed the number of embeds and attachments Discord
+ * accepts in a single message.
+ */
+final class MessageBatch {
+
+    /**
+     * Maximum number of embeds Discord accepts in a single message.
+     */
+    static final int MAX_EMBEDS = 10;
+    /**
+     * Maximum number of attachments Discord accepts in a single message.
+     */
+    static final int MAX_FILES = 10;
+    private static final String ATTACHMENT_PREFIX = "attachment://";
+
+    private MessageBatch() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Splits the given templates into consecutive groups that can each be {@link #combine(List) combined} into a
+     * single message.
+     *
+     * @param templates the templates to split
+     * @return the groups, in order
+     */
+    static List<List<MessageTemplate>> partition(List<MessageTemplate> templates) {
+        final var groups = new ArrayList<List<MessageTemplate>>();
+        var from = 0;
+        final var contents = new HashSet<ContentKey>();
+        for (var i = 0; i < templates.size(); i++) {
+            final var added = new HashSet<ContentKey>();
+            for (final var file : templates.get(i).files()) {
+                final var key = new ContentKey(file.bytes());
+                if (!contents.contains(key)) {
+                    added.add(key);
+                }
+            }
+            if (i > from && (i - from == MAX_EMBEDS || contents.size() + added.size() > MAX_FILES)) {
+                groups.add(templates.subList(from, i));
+                from = i;
+                contents.clear();
+                templates.get(i).files().forEach(file -> contents.add(new ContentKey(file.bytes())));
+            } else {
+                contents.addAll(added);
+            }
+        }
+        if (from < templates.size()) {
+            groups.add(templates.subList(from, templates.size()));
+        }
+        return groups;
+    }
+
+    /**
+     * Creates a message containing the first embed of each template, in order. The content is taken from the first
+     * template.
+     *
+     * @param templates the templates to combine
+     * @return a new spec
+     */
+    static MessageCreateSpec combine(List<MessageTemplate> templates) {
+        if (templates.isEmpty() || templates.size() > MAX_EMBEDS) {
+            throw new IllegalArgumentException("Invalid batch size: " + templates.size());
+        }
+        final var embeds = new ArrayList<EmbedCreateSpec>();
+        final var files = new ArrayList<MessageCreateFields.File>();
+        final var namesByContent = new HashMap<ContentKey, String>();
+        for (var i = 0; i < templates.size(); i++) {
+            final var template = templates.get(i);
+            final var renames = new HashMap<String, String>();
+            for (final var file : template.files()) {
+                final var key = new ContentKey(file.bytes());
+                var name = namesByContent.get(key);
+                if (name == null) {
+                    name = i + "_" + file.name();
+                    namesByContent.put(key, name);
+                    files.add(MessageCreateFields.File.of(name, new ByteArrayInputStream(file.bytes())));
+                }
+                renames.put(file.name(), name);
+            }
+            template.spec().embeds().stream()
+                    .findFirst()
+                    .map(embed -> renameAttachments(embed, renames))
+                    .ifPresent(embeds::add);
+        }
+        if (files.size() > MAX_FILES) {
+            throw new IllegalArgumentException("Too many attachments: " + files.size());
+        }
+        return templates.get(0).spec()
+                .withEmbeds(embeds)
+                .withFiles(files)
+                .withComponents();
+    }
+
+    /**
+     * Creates an edit that replaces the embed at the given index of a combined message with the first embed of the
+     * given template, leaving the other embeds untouched. Attachments only referred to by the replaced embed are
+     * removed. If the new attachments would not fit in the message, the replaced embed keeps its previous images
+     * instead.
+     *
+     * @param message    the combined message
+     * @param index      the index of the embed to replace
+     * @param template   the template holding the new embed
+     * @param fileSuffix a suffix that makes the names of the new attachments unique within the message
+     * @return a new spec
+     */
+    static MessageEditSpec replaceEmbed(Message message, int index, MessageTemplate template, String fileSuffix) {
+        final var oldEmbeds = message.getEmbeds();
+        final var keptUrls = new ArrayList<String>();
+        for (var i = 0; i < oldEmbeds.size(); i++) {
+            if (i != index) {
+                keptUrls.addAll(imageUrls(oldEmbeds.get(i)));
+            }
+        }
+        final var keptAttachments = message.getAttachments().stream()
+                .filter(attachment -> keptUrls.stream().anyMatch(url -> refersTo(url, attachment)))
+                .toList();
+        final var newEmbed = template.spec().embeds().stream().findFirst();
+        final var embeds = new ArrayList<EmbedCreateSpec>();
+        final var files = new ArrayList<MessageCreateFields.File>();
+        if (keptAttachments.size() + template.files().size() <= MAX_FILES) {
+            final var renames = new HashMap<String, String>();
+            for (final var file : template.files()) {
+                final var name = fileSuffix + "_" + file.name();
+                renames.put(file.name(), name);
+                files.add(MessageCreateFields.File.of(name, new ByteArrayInputStream(file.bytes())));
+            }
+            for (var i = 0; i < oldEmbeds.size(); i++) {
+                if (i == index) {
+                    newEmbed.map(embed -> renameAttachments(embed, renames)).ifPresent(embeds::add);
+                } else {
+                    embeds.add(toSpec(oldEmbeds.get(i)));
+                }
+            }
+            return MessageEditSpec.create()
+                    .withEmbedsOrNull(embeds)
+                    .withAttachmentsOrNull(keptAttachments)
+                    .withFiles(files);
+        }
+        for (var i = 0; i < oldEmbeds.size(); i++) {
+            if (i == index) {
+                final var old = toSpec(oldEmbeds.get(i));
+                newEmbed.map(embed -> withImagesOf(embed, old)).ifPresent(embeds::add);
+            } else {
+                embeds.add(toSpec(oldEmbeds.get(i)));
+            }
+        }
+        // All attachments are kept, as the replaced embed still refers to its previous ones
+        return MessageEditSpec.create().withEmbedsOrNull(embeds);
+    }
+
+    private static List<String> imageUrls(Embed embed) {
+        final var urls = new ArrayList<String>();
+        embed.getThumbnail().ifPresent(thumbnail -> urls.add(thumbnail.getUrl()));
+        embed.getImage().ifPresent(image -> urls.add(image.getUrl()));
+        embed.getAuthor().flatMap(Embed.Author::getIconUrl).ifPresent(urls::add);
+        embed.getFooter().flatMap(Embed.Footer::getIconUrl).ifPresent(urls::add);
+        return urls;
+    }
+
+    private static boolean refersTo(String url, Attachment attachment) {
+        if (url.startsWith(ATTACHMENT_PREFIX)) {
+            return url.substring(ATTACHMENT_PREFIX.length()).equals(attachment.getFilename());
+        }
+        // Attachments of received messages are referred to by their CDN URL, which ends with the file name
+        final var queryStart = url.indexOf('?');
+        final var path = queryStart < 0 ? url : url.substring(0, queryStart);
+        return path.endsWith("/" + attachment.getFilename());
+    }
+
+    private static EmbedCreateSpec withImagesOf(EmbedCreateSpec embed, EmbedCreateSpec old) {
+        final var author = embed.author();
+        final var oldAuthor = old.author();
+        final var footer = embed.footer();
+        final var oldFooter = old.footer();
+        return embed
+                .withThumbnail(old.thumbnail())
+                .withImage(old.image())
+                .withAuthor(author == null ? null : EmbedCreateFields.Author.of(author.name(), author.url(),
+                        oldAuthor == null ? null : oldAuthor.iconUrl()))
+                .withFooter(footer == null ? null : EmbedCreateFields.Footer.of(footer.text(),
+                        oldFooter == null ? null : oldFooter.iconUrl()));
+    }
+
+    private static EmbedCreateSpec renameAttachments(EmbedCreateSpec embed, Map<String, String> renames) {
+        final UnaryOperator<@Nullable String> rename = url -> {
+            if (url == null || !url.startsWith(ATTACHMENT_PREFIX)) {
+                return url;
+            }
+            final var name = url.substring(ATTACHMENT_PREFIX.length());
+            return ATTACHMENT_PREFIX + renames.getOrDefault(name, name);
+        };
+        final var author = embed.author();
+        final var footer = embed.footer();
+        return embed
+                .withThumbnail(rename.apply(embed.thumbnail()))
+                .withImage(rename.apply(embed.image()))
+                .withAuthor(author == null ? null :
+                        EmbedCreateFields.Author.of(author.name(), author.url(), rename.apply(author.iconUrl())))
+                .withFooter(footer == null ? null :
+                        EmbedCreateFields.Footer.of(footer.text(), rename.apply(footer.iconUrl())));
+    }
+
+    private static EmbedCreateSpec toSpec(Embed embed) {
+        final var builder = EmbedCreateSpec.builder();
+        embed.getTitle().ifPresent(builder::title);
+        embed.getDescription().ifPresent(builder::description);
+        embed.getUrl().ifPresent(builder::url);
+        embed.getTimestamp().ifPresent(builder::timestamp);
+        embed.getColor().ifPresent(builder::color);
+        embed.getThumbnail().ifPresent(thumbnail -> builder.thumbnail(thumbnail.getUrl()));
+        embed.getImage().ifPresent(image -> builder.image(image.getUrl()));
+        embed.getAuthor().ifPresent(author -> builder.author(author.getName().orElse(""),
+                author.getUrl().orElse(null), author.getIconUrl().orElse(null)));
+        embed.getFooter().ifPresent(footer -> builder.footer(footer.getText(), footer.getIconUrl().orElse(null)));
+        embed.getFields().forEach(field -> builder.addField(field.getName(), field.getValue(), field.isInline()));
+        return builder.build();
+    }
+
+    private record ContentKey(byte[] bytes) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ContentKey other && Arrays.equals(bytes, other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(bytes);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ultimategdbot.event;
+
+import discord4j.core.spec.MessageCreateFields;
+import discord4j.core.spec.MessageCreateSpec;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * A rendered message whose attachments are kept in memory, so that it can be sent any number of times without
+ * rendering it again.
+ */
+record MessageTemplate(MessageCreateSpec spec, List<FileData> files) {
+
+    static Mono<MessageTemplate> of(MessageCreateSpec spec) {
+        return Mono.fromCallable(() -> new MessageTemplate(spec.withFiles(), spec.files().stream()
+                .map(file -> new FileData(file.name(), readAllBytes(file.inputStream())))
+                .toList()));
+    }
+
+    private static byte[] readAllBytes(InputStream inputStream) {
+        try (inputStream) {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a new spec for this template. Each call returns fresh streams for the attachments.
+     *
+     * @return a {@link MessageCreateSpec}
+     */
+    MessageCreateSpec toSpec() {
+        return spec.withFiles(files.stream()
+                .map(file -> MessageCreateFields.File.of(file.name, new ByteArrayInputStream(file.bytes)))
+                .toList());
+    }
+
+    record FileData(String name, byte[] bytes) {}
+}
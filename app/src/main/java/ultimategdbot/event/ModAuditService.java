@@ -0,0 +1,253 @@
+package ultimategdbot.event;
+
+import botrino.api.config.ConfigContainer;
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
+import com.github.alex1304.rdi.finder.annotation.RdiService;
+import jdash.client.GDClient;
+import jdash.common.Role;
+import jdash.common.entity.GDUserProfile;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.database.GdLinkedUserDao;
+import ultimategdbot.database.GdMod;
+import ultimategdbot.database.GdModDao;
+import ultimategdbot.database.ImmutableGdMod;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ultimategdbot.event.ModStatusUpdate.Type.*;
+
+/**
+ * Detects moderator promotions and demotions by comparing the role shown on the GD profile of users with the one
+ * stored in the database, and submits a {@link ModStatusUpdate} to {@link ManualEventProducer} when they differ.
+ * <p>
+ * If enabled, all known moderators and recently linked accounts are audited in the background once per configured
+ * interval. Profile requests are spread over the interval, and never use more than the configured share of the GD
+ * request limiter budget. The last audited account is saved to disk after each check, so that a round interrupted by
+ * a restart resumes where it left off.
+ */
+@RdiService
+public final class ModAuditService {
+
+    private static final Logger LOGGER = Loggers.getLogger(ModAuditService.class);
+
+    private final GDClient gdClient;
+    private final GdModDao gdModDao;
+    private final GdLinkedUserDao gdLinkedUserDao;
+    private final ManualEventProducer eventProducer;
+    private final UltimateGDBotConfig.GD.ModAudit config;
+    private final Duration minRequestDelay;
+    private final Path stateFile;
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long roundSize;
+    private volatile long cursor;
+    private volatile @Nullable Instant lastRoundCompleted;
+
+    @RdiFactory
+    public ModAuditService(GDClient gdClient, GdModDao gdModDao, GdLinkedUserDao gdLinkedUserDao,
+                           ManualEventProducer eventProducer, ConfigContainer configContainer) {
+        final var gdConfig = configContainer.get(UltimateGDBotConfig.class).gd();
+        this.gdClient = gdClient.withCacheDisabled();
+        this.gdModDao = gdModDao;
+        this.gdLinkedUserDao = gdLinkedUserDao;
+        this.eventProducer = eventProducer;
+        this.config = gdConfig.modAudit();
+        this.minRequestDelay = gdConfig.client().requestLimiter()
+                .map(limiter -> Duration.ofMillis((long) Math.ceil(limiter.intervalSeconds() * 1000.0 /
+                        (limiter.limit() * config.budgetShare()))))
+                .orElse(Duration.ZERO);
+        this.stateFile = Path.of(config.stateFile());
+        if (config.enabled()) {
+            run();
+        }
+    }
+
+    /**
+     * Determines the event corresponding to a change of elder level, -1 meaning that the user is not a moderator.
+     *
+     * @param previous the elder level stored in the database
+     * @param current  the elder level shown on the profile
+     * @return the type of event to submit, if any
+     */
+    static Optional<ModStatusUpdate.Type> transition(int previous, int current) {
+        if (previous == current) {
+            return Optional.empty();
+        }
+        if (previous == -1) {
+            return Optional.of(switch (current) {
+                case 0 -> PROMOTED_TO_MOD;
+                case 1 -> PROMOTED_TO_ELDER;
+                case 2 -> PROMOTED_TO_LBMOD;
+                default -> throw new AssertionError();
+            });
+        }
+        return Optional.of(switch (current) {
+            case -1 -> switch (previous) {
+                case 0 -> DEMOTED_FROM_MOD;
+                case 1 -> DEMOTED_FROM_ELDER;
+                case 2 -> DEMOTED_FROM_LBMOD;
+                default -> throw new AssertionError();
+            };
+            case 0 -> previous == 1 ? DEMOTED_FROM_ELDER : PROMOTED_TO_MOD;
+            case 1 -> PROMOTED_TO_ELDER;
+            case 2 -> PROMOTED_TO_LBMOD;
+            default -> throw new AssertionError();
+        });
+    }
+
+    /**
+     * Compares the role shown on the given profile with the one stored in the database, updates the database, and
+     * submits the corresponding event if they differ. The event is only submitted once the database is updated, so
+     * that a failed update does not lead to the same event being submitted again on the next check.
+     *
+     * @param profile the up-to-date profile of the user
+     * @return a Mono emitting whether the role of the user has changed
+     */
+    public Mono<Boolean> update(GDUserProfile profile) {
+        final var user = profile.user();
+        final var current = user.role().orElse(Role.USER).ordinal() - 1;
+        return gdModDao.get(user.accountId())
+                .map(GdMod::elder)
+                .defaultIfEmpty(-1)
+                .flatMap(previous -> {
+                    final Mono<Boolean> write;
+                    if (current == -1) {
+                        write = previous == -1 ? Mono.just(false)
+                                : gdModDao.delete(user.accountId()).thenReturn(true);
+                    } else {
+                        write = gdModDao
+                                .save(ImmutableGdMod.builder()
+                                        .accountId(user.accountId())
+                                        .name(user.name())
+                                        .elder(current)
+                                        .build())
+                                .thenReturn(previous != current);
+                    }
+                    return write.doOnNext(__ -> transition(previous, current)
+                            .ifPresent(type -> eventProducer.submit(ImmutableModStatusUpdate.of(profile, type))));
+                });
+    }
+
+    public Progress progress() {
+        return new Progress(config.enabled(), checked.get(), roundSize, changes.get(), failed.get(),
+                Optional.ofNullable(lastRoundCompleted));
+    }
+
+    private void run() {
+        cursor = readCursor();
+        Mono.defer(this::round)
+                .onErrorResume(e -> {
+                    LOGGER.error("Moderator audit round failed", e);
+                    return Mono.delay(Duration.ofMinutes(1)).then();
+                })
+                .repeat()
+                .subscribe();
+        LOGGER.info("Moderator audit running, resuming after account {}", cursor);
+    }
+
+    private Mono<Void> round() {
+        final var interval = Duration.ofMinutes(config.intervalMinutes());
+        final var start = System.nanoTime();
+        return accountsToAudit()
+                .flatMap(accountIds -> {
+                    // Accounts are audited in increasing order, so the ones up to the cursor are already done
+                    final var remaining = accountIds.stream().filter(id -> id > cursor).toList();
+                    roundSize = accountIds.size();
+                    checked.set(accountIds.size() - remaining.size());
+                    final var delay = accountIds.isEmpty() ? Duration.ZERO
+                            : max(interval.dividedBy(accountIds.size()), minRequestDelay);
+                    return Flux.fromIterable(remaining)
+                            .delayElements(delay)
+                            .concatMap(accountId -> audit(accountId).then(saveCursor(accountId)))
+                            .then(saveCursor(0));
+                })
+                .then(Mono.defer(() -> {
+                    lastRoundCompleted = Instant.now();
+                    LOGGER.info("Moderator audit round completed: {} accounts checked, {} role changes so far",
+                            checked.get(), changes.get());
+                    final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+                    return Mono.delay(max(interval.minus(elapsed), Duration.ZERO)).then();
+                }));
+    }
+
+    private Mono<List<Long>> accountsToAudit() {
+        final var recentLinks = Instant.now().minus(Duration.ofDays(config.recentLinkDays()));
+        return Flux.merge(gdModDao.getAll().map(GdMod::accountId),
+                        gdLinkedUserDao.getGdUsersLinkedSince(recentLinks))
+                .distinct()
+                .sort()
+                .collectList();
+    }
+
+    private Mono<Void> audit(long accountId) {
+        return gdClient.getUserProfile(accountId)
+                .flatMap(this::update)
+                .doOnNext(changed -> {
+                    if (changed) {
+                        changes.incrementAndGet();
+                    }
+                })
+                .onErrorResume(e -> {
+                    failed.incrementAndGet();
+                    LOGGER.warn("Moderator audit failed for account " + accountId, e);
+                    return Mono.empty();
+                })
+                .doFinally(__ -> checked.incrementAndGet())
+                .then();
+    }
+
+    private long readCursor() {
+        try {
+            return Files.exists(stateFile) ? Long.parseLong(Files.readString(stateFile).strip()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warn("Unable to read moderator audit state, starting a new round", e);
+            return 0;
+        }
+    }
+
+    private Mono<Void> saveCursor(long accountId) {
+        return Mono.fromCallable(() -> {
+                    cursor = accountId;
+                    final var tmp = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+                    Files.writeString(tmp, Long.toString(accountId));
+                    return Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> Mono.fromRunnable(() ->
+                        LOGGER.warn("Unable to save moderator audit state", e)))
+                .then();
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * Progress of the background moderator audit.
+     *
+     * @param enabled            whether the background audit is enabled
+     * @param checked            the number of accounts checked in the current round
+     * @param total              the number of accounts to check in the current round
+     * @param changes            the number of role changes detected since startup
+     * @param failed             the number of checks that failed since startup
+     * @param lastRoundCompleted when the last round completed, if any since startup
+     */
+    public record Progress(boolean enabled, long checked, long total, long changes, long failed,
+                           Optional<Instant> lastRoundCompleted) {}
+}
@@ -1,5 +1,7 @@
 package ultimategdbot.event;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jdash.common.entity.GDUserProfile;
 import org.immutables.value.Value;
 import ultimategdbot.config.UltimateGDBotConfig;
@@ -8,6 +10,8 @@ import ultimategdbot.util.EmbedType;
 import java.util.List;
 
 @Value.Immutable
+@JsonSerialize(as = ImmutableModStatusUpdate.class)
+@JsonDeserialize(as = ImmutableModStatusUpdate.class)
 public interface ModStatusUpdate {
 
     @Value.Parameter
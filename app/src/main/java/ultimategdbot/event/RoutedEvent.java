@@ -0,0 +1,10 @@
+package ultimategdbot.event;
+
+import discord4j.rest.entity.RestChannel;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A GD event whose target channel has already been selected. Events sharing the same ordering key are dispatched
+ * one after the other, while events with different keys may be dispatched concurrently.
+ */
+record RoutedEvent(Object event, GDEvent<?> gdEvent, @Nullable RestChannel channel, Object orderingKey) {}
@@ -0,0 +1,6 @@
+package ultimategdbot.exception;
+
+/**
+ * Thrown when an image cannot be rendered right now because too many images are waiting to be rendered.
+ */
+public final class RenderBusyException extends RuntimeException {}
@@ -28,6 +28,8 @@ import ultimategdbot.Strings;
 import ultimategdbot.exception.BotOwnerPrivilegeException;
 import ultimategdbot.exception.ElderModPrivilegeException;
 import ultimategdbot.exception.ManageWebhooksPrivilegeException;
+import ultimategdbot.exception.RenderBusyException;
+import ultimategdbot.metrics.CommandMetrics;
 import ultimategdbot.service.EmojiService;
 
 import java.util.List;
@@ -113,6 +115,8 @@ public final class UGDBErrorHandler implements InteractionErrorHandler {
                 })
                 .matchType(TimeoutException.class, e -> sendErrorMessage(ctx,
                         ctx.translate(Strings.GENERAL, "command_exec_timeout")))
+                .matchType(RenderBusyException.class, e -> sendErrorMessage(ctx,
+                        ctx.translate(Strings.GENERAL, "error_render_busy")))
                 .apply(t)
                 .orElse(sendCrashReport(ctx, t)
                         .onErrorMap(e -> {
@@ -129,6 +133,7 @@ public final class UGDBErrorHandler implements InteractionErrorHandler {
     }
 
     private Mono<Void> sendErrorMessage(InteractionContext ctx, String message) {
+        CommandMetrics.markFailed(ctx.event().getInteraction());
         return ctx.event().createFollowup(emoji.get("cross") + " " + message)
                 .withEphemeral(true)
                 .onErrorResume(e -> Mono.empty()).then();
@@ -5,6 +5,7 @@ import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
 import discord4j.core.event.domain.interaction.InteractionCreateEvent;
 import reactor.core.publisher.Mono;
+import ultimategdbot.metrics.CommandMetrics;
 import ultimategdbot.service.BlacklistService;
 import ultimategdbot.service.InteractionLogService;
 
@@ -23,6 +24,10 @@ public final class UGDBEventProcessor implements InteractionEventProcessor {
     @Override
     public Mono<Boolean> filter(InteractionCreateEvent event) {
         interactionLogService.log(event.getInteraction());
-        return Mono.just(blacklist.isBlacklisted(event));
+        final var allowed = blacklist.isBlacklisted(event);
+        if (allowed) {
+            CommandMetrics.start(event.getInteraction());
+        }
+        return Mono.just(allowed);
     }
 }
@@ -7,25 +7,70 @@ import discord4j.core.DiscordClient;
 import discord4j.core.GatewayDiscordClient;
 import discord4j.core.object.presence.ClientPresence;
 import discord4j.core.shard.MemberRequestFilter;
+import discord4j.discordjson.json.InteractionResponseData;
 import discord4j.gateway.intent.IntentSet;
 import discord4j.rest.http.client.ClientException;
 import discord4j.rest.request.RouteMatcher;
 import discord4j.rest.response.ResponseFunction;
 import discord4j.rest.route.Routes;
 import discord4j.rest.util.AllowedMentions;
+import discord4j.rest.util.MultipartRequest;
 import reactor.core.publisher.Mono;
 import ultimategdbot.exception.CreateMessage500Exception;
+import ultimategdbot.metrics.CommandMetrics;
+import ultimategdbot.metrics.Metrics;
 
 import java.util.function.Function;
 
 public final class UltimateGDBotLoginHandler implements LoginHandler {
 
+    private static void recordDiscordRequest(String route, String outcome, long start) {
+        Metrics.timer("ugdb_discord_request_duration_seconds", "Latency of requests to the Discord REST API.",
+                "route", route, "outcome", outcome).record(System.nanoTime() - start);
+    }
+
+    private static int callbackType(Object body) {
+        if (body instanceof InteractionResponseData data) {
+            return data.type();
+        }
+        if (body instanceof MultipartRequest<?> multipart
+                && multipart.getJsonPayload() instanceof InteractionResponseData data) {
+            return data.type();
+        }
+        return 0;
+    }
+
     @Override
     public Mono<GatewayDiscordClient> login(ConfigContainer configContainer) {
         final var config = configContainer.get(BotConfig.class);
         final var discordClient = DiscordClient.builder(config.token())
                 .setDefaultAllowedMentions(AllowedMentions.suppressAll())
                 .onClientResponse(ResponseFunction.emptyIfNotFound())
+                .onClientResponse(request -> {
+                    final var route = request.getMethod().name() + ' ' + request.getRoute().getUriTemplate();
+                    final var isInteractionCallback = RouteMatcher.route(Routes.INTERACTION_RESPONSE_CREATE)
+                            .matches(request);
+                    final var isInteractionMessage = RouteMatcher.route(Routes.WEBHOOK_EXECUTE).matches(request)
+                            || RouteMatcher.route(Routes.WEBHOOK_MESSAGE_EDIT).matches(request);
+                    return mono -> Mono.defer(() -> {
+                        final var start = System.nanoTime();
+                        return mono
+                                .doOnSuccess(response -> {
+                                    recordDiscordRequest(route, "success", start);
+                                    if (response == null) {
+                                        return;
+                                    }
+                                    if (isInteractionCallback) {
+                                        CommandMetrics.interactionToken(request.getUrl()).ifPresent(token ->
+                                                CommandMetrics.callback(token, callbackType(request.getBody())));
+                                    } else if (isInteractionMessage) {
+                                        CommandMetrics.interactionToken(request.getUrl())
+                                                .ifPresent(CommandMetrics::complete);
+                                    }
+                                })
+                                .doOnError(e -> recordDiscordRequest(route, "error", start));
+                    });
+                })
                 .onClientResponse(request -> {
                     if (RouteMatcher.route(Routes.MESSAGE_CREATE).matches(request)) {
                         return mono -> mono.onErrorMap(ClientException.isStatusCode(500, 502, 503, 504, 520),
@@ -0,0 +1,60 @@
+package ultimategdbot.metrics;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+/**
+ * Caffeine stats counter that publishes cache statistics as metrics.
+ */
+public final class CacheMetrics implements StatsCounter {
+
+    static final String REQUESTS = "ugdb_cache_requests_total";
+    static final String EVICTIONS = "ugdb_cache_evictions_total";
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CacheMetrics(String cacheName) {
+        this.hits = Metrics.counter(REQUESTS, "Number of cache lookups.", "cache", cacheName, "result", "hit");
+        this.misses = Metrics.counter(REQUESTS, "Number of cache lookups.", "cache", cacheName, "result", "miss");
+        this.evictions = Metrics.counter(EVICTIONS, "Number of cache evictions.", "cache", cacheName);
+        Metrics.gauge("ugdb_cache_hit_ratio", "Ratio of cache lookups that were hits.",
+                this::hitRatio, "cache", cacheName);
+    }
+
+    public double hitRatio() {
+        final var hitCount = hits.count();
+        final var total = hitCount + misses.count();
+        return total == 0 ? 1 : hitCount / (double) total;
+    }
+
+    @Override
+    public void recordHits(int count) {
+        hits.increment(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        misses.increment(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+    }
+
+    @Override
+    public void recordEviction(int weight, RemovalCause cause) {
+        evictions.increment();
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return CacheStats.of(hits.count(), misses.count(), 0, 0, 0, evictions.count(), 0);
+    }
+}
@@ -0,0 +1,97 @@
+package ultimategdbot.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import discord4j.core.object.command.ApplicationCommandInteraction;
+import discord4j.core.object.command.Interaction;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Measures the time between the reception of an interaction and the first message sent in response to it. Timing
+ * starts when the interaction passes the event processor, and stops when the interaction callback answers it, or when
+ * a followup message or an edit of the original response is sent for its token.
+ */
+public final class CommandMetrics {
+
+    static final String LATENCY = "ugdb_command_duration_seconds";
+
+    // Interaction callback type of a deferred reply, whose message comes later as a followup or an edit
+    private static final int DEFERRED_CHANNEL_MESSAGE_WITH_SOURCE = 5;
+
+    // Interaction tokens are only valid for 15 minutes
+    private static final Cache<String, Pending> PENDING = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(15))
+            .build();
+
+    private CommandMetrics() {
+        throw new AssertionError();
+    }
+
+    public static void start(Interaction interaction) {
+        final var command = interaction.getCommandInteraction()
+                .flatMap(ApplicationCommandInteraction::getName)
+                .orElse("component");
+        PENDING.put(interaction.getToken(), new Pending(command, System.nanoTime()));
+    }
+
+    public static void markFailed(Interaction interaction) {
+        PENDING.asMap().computeIfPresent(interaction.getToken(), (token, pending) -> pending.failed());
+    }
+
+    /**
+     * Extracts the interaction token from the URL of a Discord request.
+     *
+     * @param url the request URL
+     * @return the token, or empty if the request does not target an interaction
+     */
+    public static Optional<String> interactionToken(String url) {
+        // Interaction webhook URLs have the form .../webhooks/{application.id}/{interaction.token}[/...][?...], and
+        // interaction callback URLs the form .../interactions/{interaction.id}/{interaction.token}/callback[?...]
+        for (final var prefix : List.of("/webhooks/", "/interactions/")) {
+            final var index = url.indexOf(prefix);
+            if (index < 0) {
+                continue;
+            }
+            final var parts = url.substring(index + prefix.length()).split("[/?]");
+            return parts.length < 2 ? Optional.empty() : Optional.of(parts[1]);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Stops timing the interaction with the given token, unless the callback only defers the reply, in which case
+     * timing stops with the followup or edit that carries the message.
+     *
+     * @param token        the interaction token
+     * @param callbackType the type of the interaction callback
+     */
+    public static void callback(String token, int callbackType) {
+        if (callbackType != DEFERRED_CHANNEL_MESSAGE_WITH_SOURCE) {
+            complete(token);
+        }
+    }
+
+    public static void complete(String token) {
+        final var pending = PENDING.asMap().remove(token);
+        if (pending == null) {
+            return;
+        }
+        Metrics.timer(LATENCY, "Time between the reception of a command and its first response.",
+                        "command", pending.command, "outcome", pending.failed ? "error" : "success")
+                .record(System.nanoTime() - pending.start);
+    }
+
+    private record Pending(String command, long start, boolean failed) {
+
+        Pending(String command, long start) {
+            this(command, start, false);
+        }
+
+        Pending failed() {
+            return new Pending(command, start, true);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ultimategdbot.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Counter implements Meter {
+
+    private final MeterId id;
+    private final LongAdder count = new LongAdder();
+
+    Counter(MeterId id) {
+        this.id = id;
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void increment(long amount) {
+        count.add(amount);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    @Override
+    public MeterId id() {
+        return id;
+    }
+
+    @Override
+    public String type() {
+        return "counter";
+    }
+
+    @Override
+    public void writeSamples(StringBuilder sb) {
+        sb.append(id.name()).append(id.formatTags(null, null)).append(' ').append(count()).append('\n');
+    }
+}
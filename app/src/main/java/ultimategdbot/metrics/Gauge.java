@@ -0,0 +1,33 @@
+package ultimategdbot.metrics;
+
+import java.util.function.DoubleSupplier;
+
+public final class Gauge implements Meter {
+
+    private final MeterId id;
+    private final DoubleSupplier value;
+
+    Gauge(MeterId id, DoubleSupplier value) {
+        this.id = id;
+        this.value = value;
+    }
+
+    public double value() {
+        return value.getAsDouble();
+    }
+
+    @Override
+    public MeterId id() {
+        return id;
+    }
+
+    @Override
+    public String type() {
+        return "gauge";
+    }
+
+    @Override
+    public void writeSamples(StringBuilder sb) {
+        sb.append(id.name()).append(id.formatTags(null, null)).append(' ').append(value()).append('\n');
+    }
+}
@@ -0,0 +1,18 @@
+package ultimategdbot.metrics;
+
+public sealed interface Meter permits Counter, Gauge, Timer {
+
+    MeterId id();
+
+    /**
+     * @return the Prometheus type of this meter
+     */
+    String type();
+
+    /**
+     * Appends the samples of this meter to the given builder, in Prometheus text format.
+     *
+     * @param sb the builder
+     */
+    void writeSamples(StringBuilder sb);
+}
@@ -0,0 +1,47 @@
+package ultimategdbot.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Identifies a meter by its name and its tags.
+ *
+ * @param name the metric name, in Prometheus format
+ * @param tags the tags, sorted by key
+ */
+public record MeterId(String name, Map<String, String> tags) {
+
+    static MeterId of(String name, String... tags) {
+        if (tags.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags must be key/value pairs");
+        }
+        final var map = new TreeMap<String, String>();
+        for (var i = 0; i < tags.length; i += 2) {
+            map.put(tags[i], tags[i + 1]);
+        }
+        return new MeterId(name, Collections.unmodifiableMap(map));
+    }
+
+    public String tag(String key) {
+        return tags.getOrDefault(key, "");
+    }
+
+    String formatTags(String extraKey, String extraValue) {
+        if (tags.isEmpty() && extraKey == null) {
+            return "";
+        }
+        var formatted = tags.entrySet().stream()
+                .map(e -> e.getKey() + "=\"" + escape(e.getValue()) + '"')
+                .collect(Collectors.joining(","));
+        if (extraKey != null) {
+            formatted += (formatted.isEmpty() ? "" : ",") + extraKey + "=\"" + extraValue + '"';
+        }
+        return '{' + formatted + '}';
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
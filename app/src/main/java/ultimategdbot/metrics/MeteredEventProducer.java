@@ -0,0 +1,33 @@
+package ultimategdbot.metrics;
+
+import jdash.client.GDClient;
+import jdash.events.producer.GDEventProducer;
+import reactor.core.publisher.Flux;
+
+/**
+ * Records the time each event loop cycle spends in the given producer, as well as the number of events it emits.
+ */
+public final class MeteredEventProducer implements GDEventProducer {
+
+    private final GDEventProducer delegate;
+    private final Timer cycleTimer;
+    private final Counter events;
+
+    public MeteredEventProducer(String name, GDEventProducer delegate) {
+        this.delegate = delegate;
+        this.cycleTimer = Metrics.timer("ugdb_gd_event_producer_duration_seconds",
+                "Time spent by the GD event loop in each producer per cycle.", "producer", name);
+        this.events = Metrics.counter("ugdb_gd_events_produced_total",
+                "Number of GD events emitted by each producer.", "producer", name);
+    }
+
+    @Override
+    public Flux<Object> produce(GDClient client) {
+        return Flux.defer(() -> {
+            final var start = System.nanoTime();
+            return delegate.produce(client)
+                    .doOnNext(__ -> events.increment())
+                    .doFinally(__ -> cycleTimer.record(System.nanoTime() - start));
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package ultimategdbot.metrics;
+
+import jdash.client.request.GDRequest;
+import jdash.client.request.GDRouter;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records the latency and the outcome of every request sent to GD servers, tagged by endpoint.
+ */
+public final class MeteredGDRouter implements GDRouter {
+
+    static final String REQUESTS = "ugdb_gd_request_duration_seconds";
+
+    private final GDRouter delegate;
+
+    public MeteredGDRouter(GDRouter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<String> send(GDRequest request) {
+        return Mono.defer(() -> {
+            final var start = System.nanoTime();
+            return delegate.send(request)
+                    .doOnSuccess(__ -> record(request, "success", start))
+                    .doOnError(__ -> record(request, "error", start));
+        });
+    }
+
+    private static void record(GDRequest request, String outcome, long start) {
+        Metrics.timer(REQUESTS, "Latency of requests to GD servers.",
+                        "endpoint", request.getUri(), "outcome", outcome)
+                .record(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,84 @@
+package ultimategdbot.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Global registry of the application metrics. Meters are created on first use and live for the whole lifetime of the
+ * application.
+ */
+public final class Metrics {
+
+    private static final Map<MeterId, Meter> METERS = new ConcurrentHashMap<>();
+    private static final Map<String, String> HELP = new ConcurrentHashMap<>();
+
+    private Metrics() {
+        throw new AssertionError();
+    }
+
+    public static Counter counter(String name, String help, String... tags) {
+        return register(name, help, Counter.class, Counter::new, tags);
+    }
+
+    public static Timer timer(String name, String help, String... tags) {
+        return register(name, help, Timer.class, Timer::new, tags);
+    }
+
+    public static Gauge gauge(String name, String help, DoubleSupplier value, String... tags) {
+        return register(name, help, Gauge.class, id -> new Gauge(id, value), tags);
+    }
+
+    private static <M extends Meter> M register(String name, String help, Class<M> type,
+                                                Function<MeterId, M> factory, String... tags) {
+        HELP.putIfAbsent(name, help);
+        final var meter = METERS.computeIfAbsent(MeterId.of(name, tags), factory);
+        if (!type.isInstance(meter)) {
+            throw new IllegalStateException("Metric " + name + " is already registered as a " + meter.type());
+        }
+        return type.cast(meter);
+    }
+
+    /**
+     * Gets all registered meters with the given name.
+     *
+     * @param name the metric name
+     * @param type the expected meter type
+     * @param <M>  the meter type
+     * @return the meters, sorted by tags
+     */
+    public static <M extends Meter> List<M> find(String name, Class<M> type) {
+        return METERS.values().stream()
+                .filter(meter -> meter.id().name().equals(name))
+                .filter(type::isInstance)
+                .map(type::cast)
+                .sorted(Comparator.comparing(meter -> meter.id().tags().toString()))
+                .toList();
+    }
+
+    /**
+     * Formats all registered meters in Prometheus text exposition format.
+     *
+     * @return the formatted metrics
+     */
+    public static String scrape() {
+        final var sb = new StringBuilder();
+        METERS.values().stream()
+                .collect(Collectors.groupingBy(meter -> meter.id().name()))
+                .entrySet()
+                .stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    final var name = entry.getKey();
+                    final var meters = entry.getValue();
+                    sb.append("# HELP ").append(name).append(' ').append(HELP.getOrDefault(name, "")).append('\n');
+                    sb.append("# TYPE ").append(name).append(' ').append(meters.get(0).type()).append('\n');
+                    meters.forEach(meter -> meter.writeSamples(sb));
+                });
+        return sb.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package ultimategdbot.metrics;
+
+import botrino.api.config.ConfigContainer;
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
+import com.github.alex1304.rdi.finder.annotation.RdiService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import ultimategdbot.config.UltimateGDBotConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Exposes the metrics over HTTP in Prometheus text format, if enabled in the configuration.
+ */
+@RdiService
+public final class MetricsServer {
+
+    private static final Logger LOGGER = Loggers.getLogger(MetricsServer.class);
+
+    @RdiFactory
+    public MetricsServer(ConfigContainer configContainer) {
+        configContainer.get(UltimateGDBotConfig.class).metricsEndpoint().ifPresent(config -> {
+            try {
+                final var server = HttpServer.create(new InetSocketAddress(config.host(), config.port()), 0);
+                server.createContext(config.path(), MetricsServer::handle);
+                server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                    final var thread = new Thread(r, "metrics-server");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+                server.start();
+                LOGGER.info("Metrics endpoint listening on http://{}:{}{}", config.host(), config.port(),
+                        config.path());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final var body = Metrics.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ultimategdbot.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency and the outcome of every command sent to MongoDB, tagged by command name.
+ */
+public final class MongoCommandMetrics implements CommandListener {
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getCommandName(), "success", event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getCommandName(), "error", event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private static void record(String command, String outcome, long nanos) {
+        Metrics.timer("ugdb_mongo_command_duration_seconds", "Latency of MongoDB commands.",
+                "command", command, "outcome", outcome).record(nanos);
+    }
+}
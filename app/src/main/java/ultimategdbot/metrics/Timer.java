@@ -0,0 +1,93 @@
+package ultimategdbot.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records durations into a fixed-bucket histogram, exposed as a Prometheus histogram in seconds.
+ */
+public final class Timer implements Meter {
+
+    private static final double[] BUCKETS_SECONDS = {
+            0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60
+    };
+    private static final long[] BUCKETS_NANOS = new long[BUCKETS_SECONDS.length];
+
+    static {
+        for (var i = 0; i < BUCKETS_SECONDS.length; i++) {
+            BUCKETS_NANOS[i] = (long) (BUCKETS_SECONDS[i] * 1_000_000_000L);
+        }
+    }
+
+    private final MeterId id;
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKETS_SECONDS.length);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    Timer(MeterId id) {
+        this.id = id;
+    }
+
+    public void record(Duration duration) {
+        record(duration.toNanos());
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        for (var i = 0; i < BUCKETS_NANOS.length; i++) {
+            if (nanos <= BUCKETS_NANOS[i]) {
+                bucketCounts.incrementAndGet(i);
+                break;
+            }
+        }
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public Duration mean() {
+        final var count = count();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / count);
+    }
+
+    public Duration max() {
+        return Duration.ofNanos(maxNanos.get());
+    }
+
+    @Override
+    public MeterId id() {
+        return id;
+    }
+
+    @Override
+    public String type() {
+        return "histogram";
+    }
+
+    @Override
+    public void writeSamples(StringBuilder sb) {
+        var cumulative = 0L;
+        for (var i = 0; i < BUCKETS_SECONDS.length; i++) {
+            cumulative += bucketCounts.get(i);
+            sb.append(id.name()).append("_bucket").append(id.formatTags("le", String.valueOf(BUCKETS_SECONDS[i])))
+                    .append(' ').append(cumulative).append('\n');
+        }
+        final var count = count();
+        sb.append(id.name()).append("_bucket").append(id.formatTags("le", "+Inf"))
+                .append(' ').append(count).append('\n');
+        sb.append(id.name()).append("_sum").append(id.formatTags(null, null)).append(' ')
+                .append(totalNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1)).append('\n');
+        sb.append(id.name()).append("_count").append(id.formatTags(null, null)).append(' ')
+                .append(count).append('\n');
+    }
+}
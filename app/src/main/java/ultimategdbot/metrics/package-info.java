@@ -0,0 +1 @@
+package ultimategdbot.metrics;
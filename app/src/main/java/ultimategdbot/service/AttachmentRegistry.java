@@ -0,0 +1,197 @@
+package ultimategdbot.service;
+
+import botrino.api.config.ConfigContainer;
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
+import com.github.alex1304.rdi.finder.annotation.RdiService;
+import discord4j.common.util.Snowflake;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.spec.MessageCreateFields.File;
+import discord4j.core.spec.MessageCreateSpec;
+import discord4j.rest.entity.RestChannel;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.metrics.Metrics;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Uploads images that are attached to many messages, such as difficulty and author icons, once to a private asset
+ * channel, so that embeds can refer to their CDN URL instead of attaching the same bytes again. Each distinct image is
+ * identified by a key, and uploaded again only when its URL expires.
+ * <p>
+ * When an upload fails, for example because the bot lost access to the asset channel, no upload is attempted for a
+ * while and images are attached instead. That delay doubles with each consecutive failure.
+ * <p>
+ * If no asset channel is configured, no URL is ever resolved and images must be attached as before.
+ */
+@RdiService
+public final class AttachmentRegistry {
+
+    private static final Logger LOGGER = Loggers.getLogger(AttachmentRegistry.class);
+    private static final Duration EXPIRY_MARGIN = Duration.ofHours(1);
+    private static final Duration DEFAULT_VALIDITY = Duration.ofHours(23);
+    static final Duration MIN_FAILURE_BACKOFF = Duration.ofMinutes(1);
+    static final Duration MAX_FAILURE_BACKOFF = Duration.ofHours(1);
+
+    private final @Nullable RestChannel assetChannel;
+    private final Clock clock;
+    private final Map<String, Entry> assets = new ConcurrentHashMap<>();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile Instant uploadsResumeAt = Instant.MIN;
+
+    public AttachmentRegistry(@Nullable RestChannel assetChannel) {
+        this(assetChannel, Clock.systemUTC());
+    }
+
+    AttachmentRegistry(@Nullable RestChannel assetChannel, Clock clock) {
+        this.assetChannel = assetChannel;
+        this.clock = clock;
+    }
+
+    @RdiFactory
+    public static AttachmentRegistry create(GatewayDiscordClient gateway, ConfigContainer configContainer) {
+        return new AttachmentRegistry(configContainer.get(UltimateGDBotConfig.class).assetChannelId()
+                .map(id -> RestChannel.create(gateway.rest(), Snowflake.of(id)))
+                .orElse(null));
+    }
+
+    /**
+     * Gets the CDN URL of the image identified by the given key, uploading it if it isn't known yet or if its URL has
+     * expired.
+     *
+     * @param key      the key identifying the image. Images with the same key must have the same content
+     * @param fileName the file name to upload the image with
+     * @param content  supplies the content of the image, only called if the image needs to be uploaded
+     * @return a Mono emitting the URL, or empty if no asset channel is configured, if the upload failed or if
+     * uploads are paused after a failure. Errors of the content are propagated as is
+     */
+    public Mono<String> url(String key, String fileName, Supplier<Mono<byte[]>> content) {
+        if (assetChannel == null) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            final var existing = assets.get(key);
+            if ((existing == null || existing.isExpired()) && clock.instant().isBefore(uploadsResumeAt)) {
+                return Mono.empty();
+            }
+            final var entry = assets.compute(key, (k, existing) -> existing == null || existing.isExpired()
+                    ? new Entry(upload(assetChannel, k, fileName, content))
+                    : existing);
+            return entry.asset.map(Asset::url)
+                    .onErrorResume(e -> {
+                        assets.remove(key, entry);
+                        if (e instanceof ContentException contentError) {
+                            return Mono.error(contentError.getCause());
+                        }
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    /**
+     * Resolves the URL of an image to refer to in an embed, and the files to attach to the message for it.
+     *
+     * @param key      the key identifying the image
+     * @param fileName the file name of the image
+     * @param content  supplies the content of the image
+     * @return a Mono emitting the resolved image
+     */
+    public Mono<ResolvedImage> resolve(String key, String fileName, Supplier<Mono<byte[]>> content) {
+        return url(key, fileName, content)
+                .map(url -> new ResolvedImage(url, null))
+                .switchIfEmpty(Mono.defer(content).map(bytes -> new ResolvedImage("attachment://" + fileName,
+                        File.of(fileName, new ByteArrayInputStream(bytes)))));
+    }
+
+    private Mono<Asset> upload(RestChannel channel, String key, String fileName, Supplier<Mono<byte[]>> content) {
+        return Mono.defer(content)
+                .onErrorMap(ContentException::new)
+                .flatMap(bytes -> channel.createMessage(MessageCreateSpec.create()
+                        .withContent(key)
+                        .withFiles(File.of(fileName, new ByteArrayInputStream(bytes)))
+                        .asRequest()))
+                .map(data -> {
+                    final var url = data.attachments().get(0).url();
+                    Metrics.counter("ugdb_asset_uploads_total", "Number of images uploaded to the asset channel.")
+                            .increment();
+                    LOGGER.debug("Uploaded asset {}: {}", key, url);
+                    consecutiveFailures.set(0);
+                    return new Asset(url, expiryOf(url, clock.instant()));
+                })
+                .doOnError(e -> !(e instanceof ContentException), e -> {
+                    // Upload errors are handled once here, as the upload is shared by all callers of the same key
+                    final var failures = consecutiveFailures.incrementAndGet();
+                    final var backoff = MIN_FAILURE_BACKOFF.multipliedBy(1L << Math.min(failures - 1, 30));
+                    final var delay = backoff.compareTo(MAX_FAILURE_BACKOFF) > 0 ? MAX_FAILURE_BACKOFF : backoff;
+                    uploadsResumeAt = clock.instant().plus(delay);
+                    LOGGER.warn("Failed to upload asset " + key + ", attaching images instead for " + delay, e);
+                });
+    }
+
+    /**
+     * Reads the expiry time of a signed CDN URL, which is given in hexadecimal seconds by its {@code ex} parameter.
+     * URLs without a valid expiry are assumed to be valid for a default duration from the given time.
+     */
+    static Instant expiryOf(String url, Instant now) {
+        final var query = URI.create(url).getRawQuery();
+        if (query != null) {
+            for (final var param : query.split("&")) {
+                if (param.startsWith("ex=")) {
+                    try {
+                        return Instant.ofEpochSecond(Long.parseLong(param.substring(3), 16));
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return now.plus(DEFAULT_VALIDITY);
+    }
+
+    /**
+     * An image to refer to in an embed.
+     *
+     * @param url  the URL to put in the embed
+     * @param file the file to attach to the message for the URL to resolve, or null if the URL is a CDN URL
+     */
+    public record ResolvedImage(String url, @Nullable File file) {}
+
+    private record Asset(String url, Instant expiresAt) {}
+
+    /**
+     * Wraps an error of the content of an asset, to tell it apart from an error of the upload.
+     */
+    private static final class ContentException extends RuntimeException {
+
+        private ContentException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private final class Entry {
+
+        private final Mono<Asset> asset;
+        private volatile @Nullable Instant expiresAt;
+
+        private Entry(Mono<Asset> upload) {
+            this.asset = upload.doOnNext(uploaded -> expiresAt = uploaded.expiresAt).cache();
+        }
+
+        private boolean isExpired() {
+            // Assets still being uploaded are not expired
+            final var expiresAt = this.expiresAt;
+            return expiresAt != null && clock.instant().isAfter(expiresAt.minus(EXPIRY_MARGIN));
+        }
+    }
+}
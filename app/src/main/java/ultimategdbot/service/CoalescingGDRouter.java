@@ -0,0 +1,57 @@
+package ultimategdbot.service;
+
+import jdash.client.request.GDRequest;
+import jdash.client.request.GDRouter;
+import reactor.core.publisher.Mono;
+import ultimategdbot.metrics.Metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Makes concurrent identical requests share a single call to GD servers. A request is considered identical to another
+ * one if it targets the same endpoint with the same parameters. Once the shared call terminates, the next identical
+ * request triggers a new call, so this never serves stale data on its own.
+ */
+final class CoalescingGDRouter implements GDRouter {
+
+    private final GDRouter delegate;
+    private final Map<RequestKey, Mono<String>> inFlight = new ConcurrentHashMap<>();
+
+    CoalescingGDRouter(GDRouter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<String> send(GDRequest request) {
+        return Mono.defer(() -> {
+            final var key = new RequestKey(request.getUri(), Map.copyOf(request.getParams()));
+            final var created = new AtomicBoolean();
+            final var shared = inFlight.computeIfAbsent(key, k -> {
+                created.set(true);
+                return share(k, request);
+            });
+            if (!created.get()) {
+                Metrics.counter("ugdb_gd_requests_coalesced_total",
+                        "Number of GD requests that reused an identical in-flight request.",
+                        "endpoint", request.getUri()).increment();
+            }
+            return shared;
+        });
+    }
+
+    private Mono<String> share(RequestKey key, GDRequest request) {
+        final var ref = new AtomicReference<Mono<String>>();
+        // cache() keeps the upstream call alive even if the first subscriber cancels, so that the other ones still get
+        // the response
+        final var shared = delegate.send(request)
+                .doFinally(__ -> inFlight.remove(key, ref.get()))
+                .cache();
+        ref.set(shared);
+        return shared;
+    }
+
+    private record RequestKey(String uri, Map<String, String> params) {}
+}
@@ -8,22 +8,62 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.IndexOptions;
 import com.mongodb.reactivestreams.client.MongoClients;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
 import discord4j.common.jackson.UnknownPropertyHandler;
 import discord4j.discordjson.possible.PossibleFilter;
 import discord4j.discordjson.possible.PossibleModule;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.immutables.criteria.backend.Backend;
+import org.immutables.criteria.backend.ContainerNaming;
 import org.immutables.criteria.mongo.MongoBackend;
 import org.immutables.criteria.mongo.MongoSetup;
 import org.immutables.criteria.mongo.bson4jackson.BsonModule;
 import org.immutables.criteria.mongo.bson4jackson.IdAnnotationModule;
 import org.immutables.criteria.mongo.bson4jackson.JacksonCodecs;
+import org.jspecify.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.Logger;
+import reactor.util.Loggers;
 import ultimategdbot.config.MongoDBConfig;
+import ultimategdbot.metrics.MongoCommandMetrics;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Connects to the database. DAOs declare the indexes their queries rely on with
+ * {@link #ensureIndexes(Class, List, List)}, before they are used.
+ * <p>
+ * If query plan diagnostics are enabled, the shape of each DAO query that relies on a secondary index is also
+ * explained once at startup, and a warning is logged if MongoDB would answer it with a collection scan.
+ */
 @RdiService
 public final class DatabaseService {
 
+    private static final Logger LOGGER = Loggers.getLogger(DatabaseService.class);
+
+    /**
+     * Error code returned when creating an index that already exists with different options.
+     */
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+
+    private final MongoDatabase database;
     private final Backend backend;
+    private final boolean queryPlanDiagnostics;
 
     @RdiFactory
     public DatabaseService(ConfigContainer configContainer) {
@@ -39,12 +79,155 @@ public final class DatabaseService {
                         JsonInclude.Include.ALWAYS, PossibleFilter.class, null))
                 .addHandler(new UnknownPropertyHandler(true));
         @SuppressWarnings("UnstableApiUsage") final var registry = JacksonCodecs.registryFromMapper(mapper);
-        final var client = MongoClients.create(config.connectionString());
-        final var db = client.getDatabase(config.databaseName()).withCodecRegistry(registry);
-        this.backend = new MongoBackend(MongoSetup.of(db));
+        final var client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(config.connectionString()))
+                .addCommandListener(new MongoCommandMetrics())
+                .build());
+        this.database = client.getDatabase(config.databaseName()).withCodecRegistry(registry);
+        this.backend = new MongoBackend(MongoSetup.of(database));
+        this.queryPlanDiagnostics = config.queryPlanDiagnostics();
+    }
+
+    private static boolean hasCollectionScan(@Nullable Object explanation) {
+        if (explanation instanceof Document document) {
+            // Only the winning plans matter
+            return "COLLSCAN".equals(document.get("stage")) || document.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals("rejectedPlans"))
+                    .anyMatch(entry -> hasCollectionScan(entry.getValue()));
+        }
+        if (explanation instanceof List<?> list) {
+            return list.stream().anyMatch(DatabaseService::hasCollectionScan);
+        }
+        return false;
+    }
+
+    private static boolean isExpirationConflict(Throwable error, IndexDefinition index) {
+        return error instanceof MongoCommandException e && e.getErrorCode() == INDEX_OPTIONS_CONFLICT &&
+                index.options().getExpireAfter(TimeUnit.SECONDS) != null;
     }
 
     public Backend getBackend() {
         return backend;
     }
+
+    public MongoDatabase getDatabase() {
+        return database;
+    }
+
+    /**
+     * Gets the collection storing the given entity, decoding documents the same way the repositories do. This is meant
+     * for queries that the repositories cannot express, such as sorting with a collation.
+     *
+     * @param entity the entity class
+     * @param <T>    the type of entity
+     * @return the collection
+     */
+    public <T> MongoCollection<T> getCollection(Class<T> entity) {
+        return database.getCollection(ContainerNaming.DEFAULT.name(entity), entity);
+    }
+
+    private MongoCollection<Document> collection(Class<?> entity) {
+        return database.getCollection(ContainerNaming.DEFAULT.name(entity))
+                .withCodecRegistry(MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    /**
+     * Creates the given indexes on the collection of the given entity if they don't exist yet. If a TTL index already
+     * exists with a different expiration, its expiration is updated. Other failures are logged and do not fail the
+     * returned Mono.
+     * <p>
+     * Once the indexes are created, the given query shapes are explained in the background if query plan diagnostics
+     * are enabled.
+     *
+     * @param entity      the entity class
+     * @param indexes     the indexes to create
+     * @param queryShapes the queries on this collection that are expected to use an index
+     * @return a Mono completing when the indexes are created
+     */
+    public Mono<Void> ensureIndexes(Class<?> entity, List<IndexDefinition> indexes, List<QueryShape> queryShapes) {
+        final var collectionName = ContainerNaming.DEFAULT.name(entity);
+        return Flux.fromIterable(indexes)
+                .concatMap(index -> Mono.from(collection(entity).createIndex(index.keys(), index.options()))
+                        .doOnNext(name -> LOGGER.debug("Ensured index {} on {}", name, collectionName))
+                        .then()
+                        .onErrorResume(e -> isExpirationConflict(e, index),
+                                e -> updateExpiration(collectionName, index))
+                        .onErrorResume(e -> Mono.fromRunnable(() -> LOGGER.warn("Unable to create index " +
+                                index.keys() + " on " + collectionName, e))))
+                .then(Mono.fromRunnable(() -> {
+                    if (queryPlanDiagnostics) {
+                        explainQueries(entity, queryShapes).subscribe();
+                    }
+                }));
+    }
+
+    private Mono<Void> updateExpiration(String collectionName, IndexDefinition index) {
+        final long expireAfterSeconds = index.options().getExpireAfter(TimeUnit.SECONDS);
+        final var command = new BsonDocument("collMod", new BsonString(collectionName))
+                .append("index", new BsonDocument("keyPattern", index.keys()
+                        .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry()))
+                        .append("expireAfterSeconds", new BsonInt64(expireAfterSeconds)));
+        return Mono.from(database.withCodecRegistry(MongoClientSettings.getDefaultCodecRegistry())
+                        .runCommand(command))
+                .doOnNext(__ -> LOGGER.info("Changed expiration of index {} on {} to {} seconds", index.keys(),
+                        collectionName, expireAfterSeconds))
+                .then();
+    }
+
+    private Mono<Void> explainQueries(Class<?> entity, List<QueryShape> queryShapes) {
+        final var collectionName = ContainerNaming.DEFAULT.name(entity);
+        return Flux.fromIterable(queryShapes)
+                .concatMap(shape -> Mono.from(shape.explain().apply(collection(entity)))
+                        .doOnNext(explanation -> {
+                            if (hasCollectionScan(explanation)) {
+                                LOGGER.warn("Query \"{}\" on {} is answered with a collection scan, an index is " +
+                                        "probably missing", shape.name(), collectionName);
+                            } else {
+                                LOGGER.debug("Query \"{}\" uses an index", shape.name());
+                            }
+                        })
+                        .onErrorResume(e -> Mono.fromRunnable(() ->
+                                LOGGER.warn("Unable to explain query \"" + shape.name() + '"', e))))
+                .then();
+    }
+
+    /**
+     * An index to create on a collection.
+     *
+     * @param keys    the index keys
+     * @param options the index options
+     */
+    public record IndexDefinition(Bson keys, IndexOptions options) {
+
+        public IndexDefinition(Bson keys) {
+            this(keys, new IndexOptions());
+        }
+    }
+
+    /**
+     * The shape of a query whose plan is checked by query plan diagnostics. Values in filters don't matter, only the
+     * fields they refer to do.
+     *
+     * @param name    a name to refer to the query in logs
+     * @param explain explains the query on the given collection
+     */
+    public record QueryShape(String name, Function<MongoCollection<Document>, Publisher<Document>> explain) {
+
+        public static QueryShape find(String name, Bson filter, @Nullable Bson sort, @Nullable Collation collation) {
+            return new QueryShape(name, collection -> {
+                var find = collection.find(filter);
+                if (sort != null) {
+                    find = find.sort(sort);
+                }
+                if (collation != null) {
+                    find = find.collation(collation);
+                }
+                return find.explain(Document.class);
+            });
+        }
+
+        public static QueryShape aggregate(String name, List<Bson> pipeline) {
+            return new QueryShape(name, collection -> collection.aggregate(pipeline).explain(Document.class));
+        }
+    }
 }
@@ -11,6 +11,8 @@ import reactor.core.publisher.Mono;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.metrics.CacheMetrics;
+import ultimategdbot.metrics.MeteredGDRouter;
 
 import java.time.Duration;
 
@@ -29,15 +31,16 @@ public final class ExternalServices {
     public static Mono<GDClient> gdClient(ConfigContainer configContainer) {
         var config = configContainer.get(UltimateGDBotConfig.class).gd().client();
         return GDClient.create()
-                .withRouter(GDRouter.builder()
+                .withRouter(new CoalescingGDRouter(new MeteredGDRouter(GDRouter.builder()
                         .setBaseUrl(config.host())
                         .setRequestTimeout(config.requestTimeoutSeconds() > 0
                                 ? Duration.ofSeconds(config.requestTimeoutSeconds()) : null)
                         .setRequestLimiter(config.requestLimiter()
                                 .map(l -> RequestLimiter.of(l.limit(), Duration.ofSeconds(l.intervalSeconds())))
                                 .orElseGet(RequestLimiter::none))
-                        .build())
-                .withCache(GDCache.caffeine(c -> c.expireAfterAccess(Duration.ofSeconds(config.cacheTtlSeconds()))))
+                        .build())))
+                .withCache(GDCache.caffeine(c -> c.expireAfterAccess(Duration.ofSeconds(config.cacheTtlSeconds()))
+                        .recordStats(() -> new CacheMetrics("gd_client"))))
                 .login(config.username(), config.password())
                 .doOnNext(client -> LOGGER.debug("Successfully logged into GD account " + config.username()));
     }
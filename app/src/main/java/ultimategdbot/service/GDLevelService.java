@@ -32,12 +32,14 @@ import ultimategdbot.util.ComponentsV2Composer;
 import ultimategdbot.util.EmbedType;
 import ultimategdbot.util.GDLevels;
 import ultimategdbot.util.Interactions;
+import ultimategdbot.util.SearchPageCache;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.IntFunction;
+import java.util.stream.Stream;
 
 import static botrino.api.util.Markdown.*;
 import static java.util.function.Predicate.not;
@@ -48,27 +50,42 @@ import static ultimategdbot.util.GDLevels.*;
 public final class GDLevelService {
 
     private static final Logger LOGGER = Loggers.getLogger(GDLevelService.class);
+    private static final int SEARCH_SPLIT_FACTOR = 2;
+    private static final int MAX_CACHED_SEARCH_PAGES = 10;
 
     private final EmojiService emoji;
     private final GDClient gdClient;
+    private final AttachmentRegistry attachmentRegistry;
 
     @RdiFactory
-    public GDLevelService(EmojiService emoji, GDClient gdClient) {
+    public GDLevelService(EmojiService emoji, GDClient gdClient, AttachmentRegistry attachmentRegistry) {
         this.emoji = emoji;
         this.gdClient = gdClient;
+        this.attachmentRegistry = attachmentRegistry;
+    }
+
+    private Mono<EmbedImages> resolveImages(GDLevel level, EmbedType type) {
+        return Mono.zip(
+                        attachmentRegistry.resolve("difficulty_" + difficultySignatureForLevel(level),
+                                "difficulty.png", () -> getDifficultyImageBytesForLevel(level, false)),
+                        attachmentRegistry.resolve("author_" + type.name().toLowerCase(), "author.png",
+                                () -> Mono.fromCallable(type::iconBytes)))
+                .map(function(EmbedImages::new));
     }
 
     private Mono<Tuple2<EmbedCreateSpec, List<File>>> detailedEmbed(InteractionContext ctx, long levelId,
                                                                     String creatorName, EmbedType type,
                                                                     @Nullable GDDailyInfo timelyInfo) {
         return gdClient.downloadLevel(levelId)
-                .zipWhen(dl -> extractSongParts(ctx, dl.level()))
-                .map(function((dl, songParts) -> {
+                .zipWhen(dl -> Mono.zip(extractSongParts(ctx, dl.level()), resolveImages(dl.level(), type)))
+                .map(function((dl, songPartsAndImages) -> {
                     final var level = dl.level();
+                    final var songParts = songPartsAndImages.getT1();
+                    final var images = songPartsAndImages.getT2();
                     final var embed = EmbedCreateSpec.builder();
                     final var suffix = timelyInfo != null ? " #" + timelyInfo.number() : "";
-                    embed.author(type.getAuthorName(ctx) + suffix, null, "attachment://author.png");
-                    embed.thumbnail("attachment://difficulty.png");
+                    embed.author(type.getAuthorName(ctx) + suffix, null, images.author.url());
+                    embed.thumbnail(images.difficulty.url());
                     final var title = emoji.get("play") + "  __" + level.name() + "__ by " +
                             level.creatorName().orElse(creatorName);
                     final var desc = bold(ctx.translate(Strings.GD, "label_description")) + ' ' +
@@ -143,33 +160,25 @@ public final class GDLevelService {
                     embed.addField(coins, downloadLikesLength + "\n_ _", false);
                     embed.addField(":musical_note:   " + songParts.getT1(),
                             songParts.getT2() + "\n_ _\n" + extraInfo, false);
-                    return Tuples.of(dl.level(), embed.build());
-                }))
-                .flatMap(function((level, embed) -> getDifficultyImageForLevel(level, false)
-                        .map(inputStream -> Tuples.of(embed, List.of(
-                                File.of("difficulty.png", inputStream),
-                                File.of("author.png", type.iconInputStream())
-                        )))));
+                    return Tuples.of(embed.build(), images.files());
+                }));
     }
 
     public Mono<Tuple2<EmbedCreateSpec, List<File>>> compactEmbed(Translator tr, GDLevel level, EmbedType type,
                                                                   @Nullable GDDailyInfo timelyInfo) {
-        return Mono.zip(extractSongParts(tr, level).map(Tuple2::getT1), getDifficultyImageForLevel(level, false))
-                .map(function((songInfo, inputStream) -> {
+        return Mono.zip(extractSongParts(tr, level).map(Tuple2::getT1), resolveImages(level, type))
+                .map(function((songInfo, images) -> {
                     final var embed = EmbedCreateSpec.builder();
                     final var suffix = timelyInfo != null ? " #" + timelyInfo.number() : "";
-                    embed.author(type.getAuthorName(tr) + suffix, null, "attachment://author.png");
-                    embed.thumbnail("attachment://difficulty.png");
+                    embed.author(type.getAuthorName(tr) + suffix, null, images.author.url());
+                    embed.thumbnail(images.difficulty.url());
                     final var title = formatLevelHeader(emoji, level);
                     final var coins = formatCoins(emoji, tr, level);
                     final var downloadLikesLength = formatDownloadsLikesLength(emoji, level);
                     embed.addField(title, downloadLikesLength, false);
                     embed.addField(coins, ":musical_note:   " + songInfo, false);
                     embed.footer(tr.translate(Strings.GD, "label_level_id") + ' ' + level.id(), null);
-                    return Tuples.of(embed.build(), List.of(
-                            File.of("difficulty.png", inputStream),
-                            File.of("author.png", type.iconInputStream())
-                    ));
+                    return Tuples.of(embed.build(), images.files());
                 }));
     }
 
@@ -178,7 +187,8 @@ public final class GDLevelService {
         final var resultsOfCurrentPage = new AtomicReference<@Nullable List<? extends GDLevel>>();
         final var selectionMessageId = new AtomicReference<@Nullable Snowflake>();
         final var selectMenuId = UUID.randomUUID().toString();
-        final var splitSearchFunction = GDLevels.splittingSearchFunction(searchFunction, 2, 5);
+        final var pageCache = new SearchPageCache(searchFunction, MAX_CACHED_SEARCH_PAGES);
+        final var splitSearchFunction = GDLevels.splittingSearchFunction(pageCache, SEARCH_SPLIT_FACTOR, 5);
         return splitSearchFunction.apply(0).collectList()
                 .doOnNext(resultsOfCurrentPage::set)
                 .flatMap(results -> results.size() == 1 ? sendSelectedSearchResult(ctx, results.get(0), null).then()
@@ -188,6 +198,8 @@ public final class GDLevelService {
                                 .collectList()
                                 .filter(not(List::isEmpty))
                                 .doOnNext(resultsOfCurrentPage::set)
+                                // Fetch the next GD page while the user reads this one
+                                .doOnNext(__ -> pageCache.prefetch(state.getPage() / SEARCH_SPLIT_FACTOR + 1))
                                 .flatMap(newResults -> ComponentsV2Composer.composeMessage(
                                         new LevelSearchResultsComponent(ctx, emoji, title, newResults,
                                                 state),
@@ -272,4 +284,10 @@ public final class GDLevelService {
                 .onErrorReturn(unknownSongParts(tr));
     }
 
+    private record EmbedImages(AttachmentRegistry.ResolvedImage difficulty, AttachmentRegistry.ResolvedImage author) {
+
+        List<File> files() {
+            return Stream.of(difficulty.file(), author.file()).filter(Objects::nonNull).toList();
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package ultimategdbot.service;
+
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
+import com.github.alex1304.rdi.finder.annotation.RdiService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jdash.client.GDClient;
+import jdash.common.entity.GDUser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import ultimategdbot.database.GdPlayer;
+import ultimategdbot.database.GdPlayerDao;
+import ultimategdbot.database.ImmutableGdPlayer;
+import ultimategdbot.metrics.CacheMetrics;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves GD player IDs to account IDs without sending a request to GD servers whenever possible. The index is fed
+ * with every user the bot comes across, kept in memory for the most recent ones and persisted to the database.
+ * <p>
+ * A player only enters the in-memory cache once it is persisted or read from the database. Until then, it is held
+ * as a pending write, so that a failed write is attempted again the next time the player is recorded.
+ */
+@RdiService
+public final class GDPlayerIndex {
+
+    private static final Logger LOGGER = Loggers.getLogger(GDPlayerIndex.class);
+    private static final int MAX_CACHED_PLAYERS = 10_000;
+    private static final int WRITE_BATCH_SIZE = 100;
+    private static final Duration WRITE_BATCH_INTERVAL = Duration.ofSeconds(10);
+
+    private final Cache<Long, Long> accountIdsByPlayerId = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_PLAYERS)
+            .recordStats(() -> new CacheMetrics("gd_player_index"))
+            .build();
+    private final Map<Long, Long> pendingAccountIdsByPlayerId = new ConcurrentHashMap<>();
+    private final GdPlayerDao gdPlayerDao;
+    private final GDClient gdClient;
+    private final Sinks.Many<GdPlayer> pendingWrites = Sinks.many().unicast().onBackpressureBuffer();
+
+    @RdiFactory
+    public GDPlayerIndex(GdPlayerDao gdPlayerDao, GDClient gdClient) {
+        this(gdPlayerDao, gdClient, WRITE_BATCH_SIZE, WRITE_BATCH_INTERVAL);
+    }
+
+    GDPlayerIndex(GdPlayerDao gdPlayerDao, GDClient gdClient, int writeBatchSize, Duration writeBatchInterval) {
+        this.gdPlayerDao = gdPlayerDao;
+        this.gdClient = gdClient;
+        pendingWrites.asFlux()
+                .bufferTimeout(writeBatchSize, writeBatchInterval)
+                .concatMap(batch -> {
+                    final var latest = new LinkedHashMap<Long, GdPlayer>();
+                    batch.forEach(player -> latest.put(player.playerId(), player));
+                    final var players = List.copyOf(latest.values());
+                    return gdPlayerDao.saveAll(players)
+                            .doOnSuccess(__ -> players.forEach(player -> {
+                                accountIdsByPlayerId.put(player.playerId(), player.accountId());
+                                pendingAccountIdsByPlayerId.remove(player.playerId(), player.accountId());
+                            }))
+                            .onErrorResume(e -> Mono.fromRunnable(() -> {
+                                players.forEach(player -> pendingAccountIdsByPlayerId.remove(player.playerId(),
+                                        player.accountId()));
+                                LOGGER.error("Failed to persist " + players.size() + " GD players", e);
+                            }));
+                })
+                .subscribe();
+    }
+
+    /**
+     * Adds the given user to the index. Unregistered users are ignored, and users that are already known or already
+     * waiting to be written are not written again to the database.
+     *
+     * @param user the user to index
+     */
+    public void record(GDUser user) {
+        if (user.playerId() <= 0 || user.accountId() <= 0) {
+            return;
+        }
+        final var known = accountIdsByPlayerId.getIfPresent(user.playerId());
+        if (known != null && known == user.accountId()) {
+            return;
+        }
+        final var pending = pendingAccountIdsByPlayerId.put(user.playerId(), user.accountId());
+        if (pending != null && pending == user.accountId()) {
+            return;
+        }
+        pendingWrites.emitNext(ImmutableGdPlayer.builder()
+                        .playerId(user.playerId())
+                        .accountId(user.accountId())
+                        .name(user.name())
+                        .build(),
+                Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+    }
+
+    /**
+     * Finds the account ID of the given player. The memory and the database are looked up first, and GD servers are
+     * only queried if the player is unknown to both.
+     *
+     * @param playerId the player ID
+     * @return a Mono emitting the account ID, or empty if the player is not a registered user
+     */
+    public Mono<Long> accountIdOf(long playerId) {
+        return Mono.fromCallable(() -> {
+                    final var cached = accountIdsByPlayerId.getIfPresent(playerId);
+                    return cached != null ? cached : pendingAccountIdsByPlayerId.get(playerId);
+                })
+                .switchIfEmpty(Mono.defer(() -> gdPlayerDao.get(playerId))
+                        .map(GdPlayer::accountId)
+                        .doOnNext(accountId -> accountIdsByPlayerId.put(playerId, accountId))
+                        .onErrorResume(e -> Mono.fromRunnable(() ->
+                                LOGGER.warn("Failed to look up player " + playerId + " in database", e))))
+                .switchIfEmpty(Mono.defer(() -> gdClient.searchUsers("" + playerId, 0).next())
+                        .map(stats -> stats.user())
+                        .doOnNext(this::record)
+                        .map(GDUser::accountId))
+                .filter(accountId -> accountId > 0);
+    }
+}
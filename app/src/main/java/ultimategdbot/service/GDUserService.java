@@ -4,6 +4,8 @@ import botrino.api.i18n.Translator;
 import botrino.interaction.InteractionFailedException;
 import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import discord4j.common.util.Snowflake;
 import discord4j.core.GatewayDiscordClient;
 import discord4j.core.object.entity.User;
@@ -21,8 +23,11 @@ import ultimategdbot.Strings;
 import ultimategdbot.database.GdLinkedUserDao;
 import ultimategdbot.database.UserSettings;
 import ultimategdbot.database.UserSettingsDao;
+import ultimategdbot.exception.RenderBusyException;
+import ultimategdbot.metrics.CacheMetrics;
 import ultimategdbot.util.EmbedType;
-import ultimategdbot.util.ImageUtils;
+import ultimategdbot.util.PngEncoder;
+import ultimategdbot.util.RenderScheduler;
 
 import java.io.ByteArrayInputStream;
 import java.util.List;
@@ -41,20 +46,29 @@ import static ultimategdbot.util.GDFormatter.formatPolicy;
 @RdiService
 public final class GDUserService {
 
+    private static final long MAX_CACHED_ICON_SET_BYTES = 32 * 1024 * 1024;
+
     private final GdLinkedUserDao gdLinkedUserDao;
     private final UserSettingsDao userSettingsDao;
     private final EmojiService emoji;
     private final GDClient gdClient;
     private final GatewayDiscordClient gateway;
+    private final GDPlayerIndex playerIndex;
+    private final Cache<IconSetKey, byte[]> iconSetCache = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_ICON_SET_BYTES)
+            .weigher((IconSetKey key, byte[] png) -> png.length)
+            .recordStats(() -> new CacheMetrics("icon_sets"))
+            .build();
 
     @RdiFactory
     public GDUserService(GdLinkedUserDao gdLinkedUserDao, UserSettingsDao userSettingsDao, EmojiService emoji,
-                         GDClient gdClient, GatewayDiscordClient gateway) {
+                         GDClient gdClient, GatewayDiscordClient gateway, GDPlayerIndex playerIndex) {
         this.gdLinkedUserDao = gdLinkedUserDao;
         this.userSettingsDao = userSettingsDao;
         this.emoji = emoji;
         this.gdClient = gdClient;
         this.gateway = gateway;
+        this.playerIndex = playerIndex;
     }
 
     /**
@@ -84,6 +98,7 @@ public final class GDUserService {
                                                 boolean showFull) {
         final var user = profile.user();
         final var stats = profile.stats();
+        playerIndex.record(user);
         return Mono.zip(gdLinkedUserDao
                         .getDiscordAccountsForGDUser(user.accountId())
                         .flatMap(id -> gateway.withRetrievalStrategy(STORE_FALLBACK_REST)
@@ -238,10 +253,14 @@ public final class GDUserService {
     }
 
     private Mono<GeneratedIconSet> makeIconSet(GDUserProfile user) {
-        return Mono.defer(() -> {
-            final var iconSet = IconSetFactory.forUser(user).createIconSet();
-            return ImageUtils.imageStream(iconSet).map(inputStream -> new GeneratedIconSet(inputStream, null));
-        }).onErrorResume(e -> Mono.just(new GeneratedIconSet(null, e.getMessage())));
+        final var key = IconSetKey.of(user);
+        return Mono.justOrEmpty(iconSetCache.getIfPresent(key))
+                .switchIfEmpty(RenderScheduler.get()
+                        .submit(() -> PngEncoder.get().encode(IconSetFactory.forUser(user).createIconSet()))
+                        .doOnNext(png -> iconSetCache.put(key, png)))
+                .map(png -> new GeneratedIconSet(new ByteArrayInputStream(png), null))
+                .onErrorResume(e -> !(e instanceof RenderBusyException),
+                        e -> Mono.just(new GeneratedIconSet(null, e.getMessage())));
     }
 
     public Mono<GDUserProfile> stringToUser(Translator tr, String str) {
@@ -250,6 +269,7 @@ public final class GDUserService {
             return Mono.error(new InteractionFailedException(tr.translate(Strings.GD, "error_invalid_characters")));
         }
         return gdClient.searchUsers(str, 0).next()
+                .doOnNext(stats -> playerIndex.record(stats.user()))
                 .filter(stats -> stats.user().accountId() > 0)
                 .flatMap(stats -> gdClient.getUserProfile(stats.user().accountId()));
     }
@@ -288,4 +308,20 @@ public final class GDUserService {
     }
 
     private record GeneratedIconSet(@Nullable ByteArrayInputStream inputStream, @Nullable String error) {}
+
+    /**
+     * The fields of a profile that determine how its icon set is rendered. Two profiles with equal keys have identical
+     * icon sets.
+     */
+    private record IconSetKey(int cube, int ship, int ball, int ufo, int wave, int robot, int spider, int swing,
+                              int jetpack, int color1, int color2, int glowColor, boolean glowOutline) {
+
+        static IconSetKey of(GDUserProfile profile) {
+            final var user = profile.user();
+            return new IconSetKey(profile.cubeIconId(), profile.shipIconId(), profile.ballIconId(),
+                    profile.ufoIconId(), profile.waveIconId(), profile.robotIconId(), profile.spiderIconId(),
+                    profile.swingIconId(), profile.jetpackIconId(), user.color1Id(), user.color2Id(),
+                    profile.glowColorId(), user.hasGlowOutline());
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package ultimategdbot.service;
+
+import botrino.api.config.ConfigContainer;
+import com.github.alex1304.rdi.finder.annotation.RdiFactory;
+import com.github.alex1304.rdi.finder.annotation.RdiService;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.util.GDLevels;
+import ultimategdbot.util.PngEncoder;
+import ultimategdbot.util.RenderScheduler;
+
+@RdiService
+public final class ImageService {
+
+    private static final Logger LOGGER = Loggers.getLogger(ImageService.class);
+
+    @RdiFactory
+    public ImageService(ConfigContainer configContainer) {
+        final var config = configContainer.get(UltimateGDBotConfig.class);
+        PngEncoder.configure(config.imageEncoding().compressionLevel(),
+                config.imageEncoding().paletteQuantization(), config.imageEncoding().palettePrecisionLossBits());
+        RenderScheduler.configure(config.imageEncoding().renderThreads(),
+                config.imageEncoding().renderQueueCapacity());
+        if (config.warmUpImageCaches()) {
+            final var start = System.currentTimeMillis();
+            GDLevels.warmUpDifficultyImageCache().subscribe(null,
+                    t -> LOGGER.error("Failed to warm up difficulty image cache", t),
+                    () -> LOGGER.info("Difficulty image cache warmed up in {} ms",
+                            System.currentTimeMillis() - start));
+        }
+    }
+}
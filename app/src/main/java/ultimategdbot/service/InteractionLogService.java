@@ -1,40 +1,79 @@
 package ultimategdbot.service;
 
+import botrino.api.config.ConfigContainer;
 import com.github.alex1304.rdi.finder.annotation.RdiFactory;
 import com.github.alex1304.rdi.finder.annotation.RdiService;
 import discord4j.core.object.command.Interaction;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 import reactor.util.Logger;
 import reactor.util.Loggers;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.database.InteractionLog;
 import ultimategdbot.database.InteractionLogDao;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
 @RdiService
 public final class InteractionLogService {
 
     private static final Logger LOGGER = Loggers.getLogger(InteractionLogService.class);
 
     private final InteractionLogDao interactionLogDao;
-    private final Sinks.Many<Interaction> interactions = Sinks.many().unicast().onBackpressureBuffer();
+    private final UltimateGDBotConfig.InteractionLogging config;
+    private final Sinks.Many<InteractionLog> interactions = Sinks.many().unicast().onBackpressureBuffer();
+    private final AtomicLong logged = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
 
     @RdiFactory
-    public InteractionLogService(InteractionLogDao interactionLogDao) {
+    public InteractionLogService(InteractionLogDao interactionLogDao, ConfigContainer configContainer) {
         this.interactionLogDao = interactionLogDao;
+        this.config = configContainer.get(UltimateGDBotConfig.class).interactionLogging();
         run();
     }
 
     public void log(Interaction interaction) {
-        final var result = interactions.tryEmitNext(interaction);
-        if (result.isFailure()) {
-            LOGGER.warn("Interaction log failed", interaction);
+        InteractionLogDao.toLog(interaction).ifPresent(this::log);
+    }
+
+    void log(InteractionLog log) {
+        try {
+            interactions.emitNext(log, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        } catch (Sinks.EmissionException e) {
+            dropped.incrementAndGet();
+            LOGGER.warn("Interaction log failed: {}", e.getReason());
         }
     }
 
+    public long loggedCount() {
+        return logged.get();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public long failedCount() {
+        return failed.get();
+    }
+
     private void run() {
+        final var overflowStrategy = switch (config.overflowStrategy()) {
+            case DROP_OLDEST -> BufferOverflowStrategy.DROP_OLDEST;
+            case DROP_LATEST -> BufferOverflowStrategy.DROP_LATEST;
+        };
         interactions.asFlux()
-                .flatMap(interaction -> interactionLogDao.saveInteraction(interaction)
-                        .onErrorResume(e -> Mono.fromRunnable(() ->
-                                LOGGER.error("Error when saving interaction log", e))))
+                .onBackpressureBuffer(config.bufferSize(), log -> dropped.incrementAndGet(), overflowStrategy)
+                .bufferTimeout(config.batchSize(), Duration.ofSeconds(config.flushIntervalSeconds()), true)
+                .concatMap(batch -> interactionLogDao.saveAll(batch)
+                        .doOnSuccess(__ -> logged.addAndGet(batch.size()))
+                        .onErrorResume(e -> Mono.fromRunnable(() -> {
+                            failed.addAndGet(batch.size());
+                            LOGGER.error("Error when saving " + batch.size() + " interaction logs", e);
+                        })))
                 .subscribe();
         LOGGER.info("Interaction log service running");
     }
@@ -8,12 +8,14 @@ import com.github.alex1304.rdi.finder.annotation.RdiService;
 import discord4j.core.spec.EmbedCreateFields.Field;
 import discord4j.core.spec.EmbedCreateSpec;
 import discord4j.core.spec.MessageCreateSpec;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ultimategdbot.Strings;
 import ultimategdbot.config.UltimateGDBotConfig;
 import ultimategdbot.util.Interactions;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 
 @RdiService
@@ -28,28 +30,69 @@ public final class OutputPaginator {
     }
 
     public Mono<Void> paginate(InteractionContext ctx, List<String> list, UnaryOperator<String> contentTransformer) {
-        if (list.isEmpty()) {
-            return ctx.event()
-                    .createFollowup(contentTransformer.apply(ctx.translate(Strings.GENERAL, "no_data")))
-                    .then();
-        }
-        if (list.size() <= paginationMaxEntries) {
-            return ctx.event()
-                    .createFollowup(contentTransformer.apply(String.join("\n", list)))
-                    .then();
-        }
-        final var pageCount = list.size() / paginationMaxEntries + 1;
-        return MessagePaginator.paginate(ctx, pageCount, state -> Mono.just(MessageCreateSpec.create()
-                .withContent(contentTransformer.apply(
-                        String.join("\n", list.subList(state.getPage() * paginationMaxEntries,
-                                Math.min(list.size(), (state.getPage() + 1) * paginationMaxEntries)))))
-                .withEmbeds(EmbedCreateSpec.create().withFields(Field.of(
-                        ctx.translate(Strings.GENERAL, "page_x", (state.getPage() + 1), pageCount),
-                        ctx.translate(Strings.GENERAL, "page_instructions"), false)))
-                .withComponents(Interactions.paginationButtons(ctx, state))));
+        return paginate(ctx, Mono.just((long) list.size()), (offset, limit) -> Flux.fromIterable(
+                list.subList((int) offset, (int) Math.min(list.size(), offset + limit))), contentTransformer);
+    }
+
+    /**
+     * Paginates entries that are fetched one page at a time, as the user navigates. Each page is only fetched and
+     * rendered once per interaction.
+     *
+     * @param ctx                the interaction context
+     * @param count              emits the total number of entries
+     * @param source             fetches the entries of a page, in display order
+     * @param contentTransformer transforms the content of each page before it is displayed
+     * @return a Mono completing when the pagination ends
+     */
+    public Mono<Void> paginate(InteractionContext ctx, Mono<Long> count, PageSource source,
+                               UnaryOperator<String> contentTransformer) {
+        return count.flatMap(total -> {
+            if (total == 0) {
+                return ctx.event()
+                        .createFollowup(contentTransformer.apply(ctx.translate(Strings.GENERAL, "no_data")))
+                        .then();
+            }
+            if (total <= paginationMaxEntries) {
+                return renderPage(source, 0)
+                        .flatMap(content -> ctx.event().createFollowup(contentTransformer.apply(content)))
+                        .then();
+            }
+            final var pageCount = (int) ((total - 1) / paginationMaxEntries + 1);
+            final var renderedPages = new ConcurrentHashMap<Integer, Mono<String>>();
+            return MessagePaginator.paginate(ctx, pageCount, state -> renderedPages
+                    .computeIfAbsent(state.getPage(), page -> renderPage(source, page)
+                            .doOnError(e -> renderedPages.remove(page))
+                            .cache())
+                    .map(content -> MessageCreateSpec.create()
+                            .withContent(contentTransformer.apply(content))
+                            .withEmbeds(EmbedCreateSpec.create().withFields(Field.of(
+                                    ctx.translate(Strings.GENERAL, "page_x", (state.getPage() + 1), pageCount),
+                                    ctx.translate(Strings.GENERAL, "page_instructions"), false)))
+                            .withComponents(Interactions.paginationButtons(ctx, state))));
+        });
+    }
+
+    private Mono<String> renderPage(PageSource source, int page) {
+        return source.fetch((long) page * paginationMaxEntries, paginationMaxEntries)
+                .collectList()
+                .map(entries -> String.join("\n", entries));
     }
 
     public Mono<Void> paginate(InteractionContext ctx, List<String> list) {
         return paginate(ctx, list, Object::toString);
     }
+
+    /**
+     * Fetches the entries of a page.
+     */
+    @FunctionalInterface
+    public interface PageSource {
+
+        /**
+         * @param offset the number of entries before the page
+         * @param limit  the maximum number of entries in the page
+         * @return a Flux emitting the entries of the page, already formatted
+         */
+        Flux<String> fetch(long offset, int limit);
+    }
 }
@@ -3,7 +3,11 @@ package ultimategdbot.util;
 import botrino.api.i18n.Translator;
 import ultimategdbot.Strings;
 
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -19,6 +23,7 @@ public enum EmbedType {
     UNMOD(tr -> tr.translate(Strings.GD, "gdevents_title_demoted"));
 
     private final Function<Translator, String> authorName;
+    private volatile byte[] icon;
 
     EmbedType(Function<Translator, String> authorName) {
         this.authorName = authorName;
@@ -28,8 +33,30 @@ public enum EmbedType {
         return authorName.apply(tr);
     }
 
+    /**
+     * Opens a stream over the author icon of this embed type. The icon is read and re-encoded with
+     * {@link PngEncoder} the first time, then kept in memory.
+     *
+     * @return a new stream over the PNG icon
+     */
     public InputStream iconInputStream() {
-        return Objects.requireNonNull(EmbedType.class
-                .getResourceAsStream("/authorIcons/" + name().toLowerCase() + ".png"));
+        return new ByteArrayInputStream(iconBytes());
+    }
+
+    /**
+     * @return the PNG bytes of the author icon of this embed type. The array must not be modified.
+     */
+    public byte[] iconBytes() {
+        var icon = this.icon;
+        if (icon == null) {
+            try (final var resource = Objects.requireNonNull(EmbedType.class
+                    .getResourceAsStream("/authorIcons/" + name().toLowerCase() + ".png"))) {
+                icon = PngEncoder.get().encode(ImageIO.read(resource));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.icon = icon;
+        }
+        return icon;
     }
 }
@@ -1,7 +1,10 @@
 package ultimategdbot.util;
 
 import botrino.api.i18n.Translator;
+import jdash.common.DemonDifficulty;
+import jdash.common.Difficulty;
 import jdash.common.Length;
+import jdash.common.QualityRating;
 import jdash.common.entity.GDLevel;
 import jdash.common.entity.GDSong;
 import jdash.graphics.DifficultyRenderer;
@@ -13,12 +16,18 @@ import ultimategdbot.Strings;
 import ultimategdbot.service.EmojiService;
 
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.IntFunction;
 
 import static ultimategdbot.util.GDFormatter.formatCode;
 
 public final class GDLevels {
 
+    private static final Map<String, byte[]> DIFFICULTY_IMAGE_CACHE = new ConcurrentHashMap<>();
+
     private GDLevels() {
         throw new AssertionError();
     }
@@ -27,19 +36,87 @@ public final class GDLevels {
         return "__" + level.name() + "__ by " + level.creatorName().orElse("-") + " (" + level.id() + ")";
     }
 
+    /**
+     * Gets the PNG image representing the difficulty of the given level. Encoded images are cached by
+     * {@link #difficultySignatureForLevel(GDLevel) difficulty signature}, so each distinct image is only rendered
+     * once.
+     *
+     * @param level            the level
+     * @param forComponentsV2  whether to render a square image suitable for components V2 thumbnails
+     * @return a Mono emitting a new stream over the encoded image
+     */
     public static Mono<ByteArrayInputStream> getDifficultyImageForLevel(GDLevel level, boolean forComponentsV2) {
-        var image = DifficultyRenderer.forLevel(level).render();
-        if (forComponentsV2) {
-            image = ImageUtils.makeSquare(image);
-        } else {
-            image = image.getSubimage(0, 5, DifficultyRenderer.WIDTH, DifficultyRenderer.HEIGHT - 35);
+        return getDifficultyImageBytesForLevel(level, forComponentsV2).map(ByteArrayInputStream::new);
+    }
+
+    /**
+     * Same as {@link #getDifficultyImageForLevel(GDLevel, boolean)}, but emits the encoded image itself. The array
+     * is shared and must not be modified.
+     *
+     * @param level           the level
+     * @param forComponentsV2 whether to render a square image suitable for components V2 thumbnails
+     * @return a Mono emitting the encoded image
+     */
+    public static Mono<byte[]> getDifficultyImageBytesForLevel(GDLevel level, boolean forComponentsV2) {
+        final var key = difficultySignatureForLevel(level) + (forComponentsV2 ? "_V2" : "");
+        final var cached = DIFFICULTY_IMAGE_CACHE.get(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return RenderScheduler.get().submit(() -> {
+                    var image = DifficultyRenderer.forLevel(level).render();
+                    if (forComponentsV2) {
+                        image = ImageUtils.makeSquare(image);
+                    } else {
+                        image = image.getSubimage(0, 5, DifficultyRenderer.WIDTH, DifficultyRenderer.HEIGHT - 35);
+                    }
+                    return PngEncoder.get().encode(image);
+                })
+                .map(bytes -> DIFFICULTY_IMAGE_CACHE.computeIfAbsent(key, k -> bytes));
+    }
+
+    /**
+     * Renders and caches the difficulty images for every possible difficulty signature.
+     *
+     * @return a Mono completing when all images are cached
+     */
+    public static Mono<Void> warmUpDifficultyImageCache() {
+        final var levels = new ArrayList<GDLevel>();
+        for (var rewards = 0; rewards <= 10; rewards++) {
+            for (var qualityRating : QualityRating.values()) {
+                for (var difficulty : Difficulty.values()) {
+                    levels.add(dummyLevel(difficulty, DemonDifficulty.HARD, rewards, qualityRating, false,
+                            difficulty == Difficulty.AUTO));
+                }
+                for (var demonDifficulty : DemonDifficulty.values()) {
+                    levels.add(dummyLevel(Difficulty.INSANE, demonDifficulty, rewards, qualityRating, true, false));
+                }
+            }
         }
-        return ImageUtils.imageStream(image);
+        return Flux.fromIterable(levels)
+                .flatMap(level -> Flux.merge(getDifficultyImageForLevel(level, false),
+                        getDifficultyImageForLevel(level, true)), 4)
+                .then();
+    }
+
+    private static GDLevel dummyLevel(Difficulty difficulty, DemonDifficulty demonDifficulty, int rewards,
+                                      QualityRating qualityRating, boolean isDemon, boolean isAuto) {
+        return new GDLevel(0, "-", 0, "", difficulty, demonDifficulty, rewards, 0, qualityRating, 0, 0, Length.TINY,
+                0, false, 0, 0, 0, isDemon, isAuto, Optional.empty(), 0, Optional.empty(), Optional.empty(),
+                Optional.empty(), Optional.empty(), false, false);
     }
 
+    /**
+     * Gets a string that identifies the difficulty image of the given level. Demon difficulties are prefixed, as some
+     * of them have the same name as a regular difficulty.
+     *
+     * @param level the level
+     * @return the difficulty signature
+     */
     public static String difficultySignatureForLevel(GDLevel level) {
-        return (level.isDemon() ? level.demonDifficulty().name() : level.difficulty().name()) + "_"
-                + level.rewards() + "_" + level.qualityRating().name();
+        final var difficulty = level.isDemon() ? "DEMON_" + level.demonDifficulty().name()
+                : level.isAuto() ? Difficulty.AUTO.name() : level.difficulty().name();
+        return difficulty + "_" + level.rewards() + "_" + level.qualityRating().name();
     }
 
     public static String formatLevelHeader(EmojiService emoji, GDLevel level) {
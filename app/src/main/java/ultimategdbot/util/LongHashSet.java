@@ -0,0 +1,120 @@
+package ultimategdbot.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An immutable set of primitive longs backed by an open-addressing hash table. Lookups never box nor lock, which makes
+ * it suitable for read-mostly data shared between threads. Modifications return a new set.
+ */
+public final class LongHashSet {
+
+    private static final LongHashSet EMPTY = new LongHashSet(new long[2], false, 0);
+    private static final long FREE = 0;
+
+    private final long[] table;
+    private final boolean containsZero;
+    private final int size;
+
+    private LongHashSet(long[] table, boolean containsZero, int size) {
+        this.table = table;
+        this.containsZero = containsZero;
+        this.size = size;
+    }
+
+    public static LongHashSet of(Collection<Long> values) {
+        if (values.isEmpty()) {
+            return EMPTY;
+        }
+        final var table = new long[tableSizeFor(values.size())];
+        var containsZero = false;
+        var size = 0;
+        for (final long value : values) {
+            if (value == FREE) {
+                if (!containsZero) {
+                    containsZero = true;
+                    size++;
+                }
+            } else if (insert(table, value)) {
+                size++;
+            }
+        }
+        return new LongHashSet(table, containsZero, size);
+    }
+
+    private static int tableSizeFor(int size) {
+        // Keep the load factor at or below 0.5
+        return Math.max(2, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1);
+    }
+
+    private static int mix(long value) {
+        final var h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static boolean insert(long[] table, long value) {
+        final var mask = table.length - 1;
+        var i = mix(value) & mask;
+        while (table[i] != FREE) {
+            if (table[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == FREE) {
+            return containsZero;
+        }
+        final var table = this.table;
+        final var mask = table.length - 1;
+        var i = mix(value) & mask;
+        long current;
+        while ((current = table[i]) != FREE) {
+            if (current == value) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public LongHashSet with(long value) {
+        if (contains(value)) {
+            return this;
+        }
+        final var values = toSet();
+        values.add(value);
+        return of(values);
+    }
+
+    public LongHashSet without(long value) {
+        if (!contains(value)) {
+            return this;
+        }
+        final var values = toSet();
+        values.remove(value);
+        return of(values);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a new mutable set containing the same elements as this one
+     */
+    public Set<Long> toSet() {
+        final var set = new HashSet<Long>();
+        if (containsZero) {
+            set.add(FREE);
+        }
+        Arrays.stream(table).filter(v -> v != FREE).forEach(set::add);
+        return set;
+    }
+}
@@ -0,0 +1,259 @@
+package ultimategdbot.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStreamImpl;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Encodes images as PNG. Each thread reuses its own {@link ImageWriter} and output buffer, and images are written
+ * straight to memory instead of going through the disk cache of {@link ImageIO}.
+ * <p>
+ * Small images can optionally be converted to an indexed color palette before encoding, which makes them
+ * significantly smaller. By default, only images that have at most 256 colors are converted, so encoding stays
+ * lossless. A precision loss can be allowed, in which case the precision of each channel of images with more colors is
+ * reduced by up to the given number of bits until they fit in a palette. Images that still do not fit are encoded in
+ * true color.
+ */
+public final class PngEncoder {
+
+    /**
+     * Images with at most this many pixels are considered small enough to be converted to a palette.
+     */
+    public static final int MAX_PALETTE_PIXELS = 256 * 256;
+    private static final int MAX_PALETTE_SIZE = 256;
+    /**
+     * The maximum precision loss that can be allowed, beyond which images would be visibly degraded.
+     */
+    public static final int MAX_PRECISION_LOSS_BITS = 3;
+
+    private static volatile PngEncoder instance = new PngEncoder(6, true, 0);
+
+    private final int compressionLevel;
+    private final boolean paletteQuantization;
+    private final int maxPrecisionLossBits;
+    private final ThreadLocal<Writer> writers = ThreadLocal.withInitial(Writer::new);
+
+    PngEncoder(int compressionLevel, boolean paletteQuantization, int maxPrecisionLossBits) {
+        if (compressionLevel < 0 || compressionLevel > 9) {
+            throw new IllegalArgumentException("compressionLevel must be between 0 and 9");
+        }
+        if (maxPrecisionLossBits < 0 || maxPrecisionLossBits > MAX_PRECISION_LOSS_BITS) {
+            throw new IllegalArgumentException("maxPrecisionLossBits must be between 0 and " +
+                    MAX_PRECISION_LOSS_BITS);
+        }
+        this.compressionLevel = compressionLevel;
+        this.paletteQuantization = paletteQuantization;
+        this.maxPrecisionLossBits = maxPrecisionLossBits;
+    }
+
+    /**
+     * Replaces the settings of the encoder returned by {@link #get()}.
+     *
+     * @param compressionLevel     the deflate level, from 0 (no compression) to 9 (best compression)
+     * @param paletteQuantization  whether to convert small images to an indexed color palette
+     * @param maxPrecisionLossBits the number of bits of precision each channel may lose to fit in a palette, 0 to
+     *                             only convert images that fit without loss
+     */
+    public static void configure(int compressionLevel, boolean paletteQuantization, int maxPrecisionLossBits) {
+        instance = new PngEncoder(compressionLevel, paletteQuantization, maxPrecisionLossBits);
+    }
+
+    public static PngEncoder get() {
+        return instance;
+    }
+
+    /**
+     * Encodes the given image. The returned array is exactly the size of the encoded image and is not shared, so it
+     * can be wrapped in a stream as is.
+     *
+     * @param img the image to encode
+     * @return the PNG bytes
+     */
+    public byte[] encode(BufferedImage img) {
+        final var image = paletteQuantization && img.getWidth() * img.getHeight() <= MAX_PALETTE_PIXELS
+                ? toPalette(img, maxPrecisionLossBits)
+                : img;
+        return writers.get().write(image, 1f - compressionLevel / 9f);
+    }
+
+    private static BufferedImage toPalette(BufferedImage img, int maxPrecisionLossBits) {
+        if (img.getColorModel() instanceof IndexColorModel) {
+            return img;
+        }
+        final var width = img.getWidth();
+        final var height = img.getHeight();
+        final var pixels = img.getRGB(0, 0, width, height, null, 0, width);
+        for (var lostBits = 0; lostBits <= maxPrecisionLossBits; lostBits++) {
+            final var indices = new HashMap<Integer, Integer>();
+            final var indexed = new byte[pixels.length];
+            var fits = true;
+            for (var i = 0; i < pixels.length; i++) {
+                final var color = reduce(pixels[i], lostBits);
+                var index = indices.get(color);
+                if (index == null) {
+                    if (indices.size() == MAX_PALETTE_SIZE) {
+                        fits = false;
+                        break;
+                    }
+                    index = indices.size();
+                    indices.put(color, index);
+                }
+                indexed[i] = index.byteValue();
+            }
+            if (fits) {
+                return indexedImage(width, height, indices, indexed);
+            }
+        }
+        return img;
+    }
+
+    private static int reduce(int argb, int lostBits) {
+        if (lostBits == 0) {
+            return argb;
+        }
+        // Fully transparent pixels all share the same palette entry
+        if (argb >>> 24 == 0) {
+            return 0;
+        }
+        final var mask = (0xFF << lostBits) & 0xFF;
+        final var half = 1 << (lostBits - 1);
+        var reduced = 0;
+        for (var shift = 0; shift < 32; shift += 8) {
+            final var channel = (argb >>> shift) & 0xFF;
+            reduced |= Math.min(0xFF, (channel & mask) + half) << shift;
+        }
+        return reduced;
+    }
+
+    private static BufferedImage indexedImage(int width, int height, HashMap<Integer, Integer> indices,
+                                              byte[] indexed) {
+        final var size = indices.size();
+        final var r = new byte[size];
+        final var g = new byte[size];
+        final var b = new byte[size];
+        final var a = new byte[size];
+        indices.forEach((color, index) -> {
+            a[index] = (byte) (color >>> 24);
+            r[index] = (byte) (color >>> 16);
+            g[index] = (byte) (color >>> 8);
+            b[index] = color.byteValue();
+        });
+        final var bits = size <= 2 ? 1 : size <= 4 ? 2 : size <= 16 ? 4 : 8;
+        final var colorModel = new IndexColorModel(bits, size, r, g, b, a);
+        final var image = new BufferedImage(width, height, bits == 8 ? BufferedImage.TYPE_BYTE_INDEXED
+                : BufferedImage.TYPE_BYTE_BINARY, colorModel);
+        final var raster = image.getRaster();
+        final var row = new int[width];
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                row[x] = indexed[y * width + x] & 0xFF;
+            }
+            raster.setSamples(0, y, width, 1, 0, row);
+        }
+        return image;
+    }
+
+    private static final class Writer {
+
+        private final ImageWriter imageWriter = ImageIO.getImageWritersByFormatName("png").next();
+        private final ImageWriteParam param = imageWriter.getDefaultWriteParam();
+        private final BufferOutputStream output = new BufferOutputStream();
+
+        byte[] write(BufferedImage img, float compressionQuality) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(compressionQuality);
+            output.clear();
+            try {
+                imageWriter.setOutput(output);
+                imageWriter.write(null, new IIOImage(img, null, null), param);
+                return output.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                imageWriter.reset();
+            }
+        }
+    }
+
+    /**
+     * A seekable in-memory output stream whose buffer is kept between images.
+     */
+    private static final class BufferOutputStream extends ImageOutputStreamImpl {
+
+        private static final int MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+
+        private byte[] buffer = new byte[64 * 1024];
+        private int length;
+
+        void clear() {
+            if (buffer.length > MAX_RETAINED_CAPACITY) {
+                buffer = new byte[64 * 1024];
+            }
+            length = 0;
+            streamPos = 0;
+            flushedPos = 0;
+            bitOffset = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void ensureCapacity(long capacity) {
+            if (capacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.max(capacity, buffer.length * 2L));
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(streamPos + 1);
+            buffer[(int) streamPos++] = (byte) b;
+            length = (int) Math.max(length, streamPos);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(streamPos + len);
+            System.arraycopy(b, off, buffer, (int) streamPos, len);
+            streamPos += len;
+            length = (int) Math.max(length, streamPos);
+        }
+
+        @Override
+        public int read() {
+            bitOffset = 0;
+            return streamPos < length ? buffer[(int) streamPos++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            bitOffset = 0;
+            if (streamPos >= length) {
+                return -1;
+            }
+            final var n = (int) Math.min(len, length - streamPos);
+            System.arraycopy(buffer, (int) streamPos, b, off, n);
+            streamPos += n;
+            return n;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public void close() {
+            // The buffer is reused for the next image
+        }
+    }
+}
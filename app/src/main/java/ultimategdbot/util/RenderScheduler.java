@@ -0,0 +1,133 @@
+package ultimategdbot.util;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import ultimategdbot.exception.RenderBusyException;
+import ultimategdbot.metrics.Counter;
+import ultimategdbot.metrics.Metrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs image rendering and encoding on a dedicated pool of threads, so that bursts of image work neither starve nor
+ * are starved by the other tasks of the bot.
+ * <p>
+ * Tasks submitted on behalf of an interaction are rejected with a {@link RenderBusyException} when too many tasks are
+ * already waiting. Tasks submitted for a GD event broadcast, which is indicated by subscribing with
+ * {@link #broadcastPriority()} in the context, are always accepted and run before any waiting interactive task.
+ */
+public final class RenderScheduler {
+
+    private static final String PRIORITY_KEY = RenderScheduler.class.getName() + ".priority";
+    private static final Counter REJECTED = Metrics.counter("ugdb_render_rejected_total",
+            "Number of interactive render tasks rejected because the render queue was full.");
+    private static volatile RenderScheduler instance = new RenderScheduler(0, 32);
+
+    static {
+        Metrics.gauge("ugdb_render_queue_depth", "Number of render tasks waiting for a thread.",
+                () -> instance.executor.getQueue().size());
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private RenderScheduler(int threads, int queueCapacity) {
+        final var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final var threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), r -> {
+            final var thread = new Thread(r, "render-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Replaces the scheduler returned by {@link #get()}. Tasks already submitted to the previous one still complete.
+     *
+     * @param threads       the number of render threads, or 0 to use one thread per available processor
+     * @param queueCapacity the number of waiting tasks above which interactive tasks are rejected
+     */
+    public static void configure(int threads, int queueCapacity) {
+        final var previous = instance;
+        instance = new RenderScheduler(threads, queueCapacity);
+        previous.executor.shutdown();
+    }
+
+    public static RenderScheduler get() {
+        return instance;
+    }
+
+    /**
+     * A context that gives broadcast priority to the render tasks submitted by the Mono it is written to.
+     *
+     * @return a {@link Context}
+     */
+    public static Context broadcastPriority() {
+        return Context.of(PRIORITY_KEY, Priority.BROADCAST);
+    }
+
+    /**
+     * Runs the given task on a render thread.
+     *
+     * @param task the task
+     * @param <T>  the type of result
+     * @return a Mono emitting the result of the task, or erroring with {@link RenderBusyException} if the task was
+     * rejected
+     */
+    public <T> Mono<T> submit(Callable<T> task) {
+        return Mono.deferContextual(ctx -> {
+            final var priority = ctx.getOrDefault(PRIORITY_KEY, Priority.INTERACTIVE);
+            return Mono.<T>create(sink -> {
+                if (priority == Priority.INTERACTIVE && queued.get() >= queueCapacity) {
+                    REJECTED.increment();
+                    sink.error(new RenderBusyException());
+                    return;
+                }
+                queued.incrementAndGet();
+                final var prioritized = new PrioritizedTask(priority, sequence.getAndIncrement(), () -> {
+                    queued.decrementAndGet();
+                    try {
+                        sink.success(task.call());
+                    } catch (Throwable t) {
+                        sink.error(t);
+                    }
+                });
+                sink.onCancel(() -> {
+                    if (executor.remove(prioritized)) {
+                        queued.decrementAndGet();
+                    }
+                });
+                executor.execute(prioritized);
+            });
+        });
+    }
+
+    private enum Priority {
+        BROADCAST, INTERACTIVE
+    }
+
+    private record PrioritizedTask(Priority priority, long sequence, Runnable task)
+            implements Runnable, Comparable<PrioritizedTask> {
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask o) {
+            final var byPriority = priority.compareTo(o.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, o.sequence);
+        }
+    }
+}
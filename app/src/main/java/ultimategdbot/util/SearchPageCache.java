@@ -0,0 +1,82 @@
+package ultimategdbot.util;
+
+import jdash.common.entity.GDLevel;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * A search function that remembers the pages it has already fetched, so that going back and forth between pages of
+ * the same search does not query GD servers again. It is meant to live as long as a single interactive search.
+ * <p>
+ * Pages can also be prefetched in the background. A failed fetch is not remembered, so that the page is fetched
+ * again the next time it is requested.
+ */
+public final class SearchPageCache implements IntFunction<Flux<GDLevel>> {
+
+    private static final Logger LOGGER = Loggers.getLogger(SearchPageCache.class);
+
+    private final IntFunction<? extends Flux<? extends GDLevel>> original;
+    private final Map<Integer, Mono<List<GDLevel>>> pages;
+
+    /**
+     * @param original the search function that fetches pages from GD servers
+     * @param maxPages the maximum number of pages to keep, least recently used pages are dropped first
+     */
+    public SearchPageCache(IntFunction<? extends Flux<? extends GDLevel>> original, int maxPages) {
+        this.original = original;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Mono<List<GDLevel>>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    @Override
+    public Flux<GDLevel> apply(int page) {
+        return Mono.defer(() -> page(page)).flatMapIterable(levels -> levels);
+    }
+
+    /**
+     * Starts fetching the given page in the background, unless it has already been fetched. The previous page must
+     * have been fetched already and have results, it is never fetched by this method.
+     *
+     * @param page the page to prefetch
+     */
+    public void prefetch(int page) {
+        final Mono<List<GDLevel>> previousPage;
+        synchronized (pages) {
+            if (page <= 0 || pages.containsKey(page)) {
+                return;
+            }
+            previousPage = pages.get(page - 1);
+        }
+        if (previousPage == null) {
+            return;
+        }
+        previousPage
+                .filter(previous -> !previous.isEmpty())
+                .flatMap(__ -> page(page))
+                .subscribe(null, e -> LOGGER.debug("Failed to prefetch search page " + page, e));
+    }
+
+    private Mono<List<GDLevel>> page(int page) {
+        synchronized (pages) {
+            return pages.computeIfAbsent(page, p -> Flux.<GDLevel>from(original.apply(p))
+                    .collectList()
+                    .doOnError(e -> {
+                        synchronized (pages) {
+                            pages.remove(p);
+                        }
+                    })
+                    .cache());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ultimategdbot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Raw GD server responses shared by the tests, taken from jdash test resources. The benchmark module reads the same
+ * files.
+ */
+public final class GDResponses {
+
+    public static final String GET_USER_PROFILE = read("getUserProfile.txt");
+    public static final String SEARCH_USERS = read("searchUsers.txt");
+
+    private GDResponses() {
+        throw new AssertionError();
+    }
+
+    private static String read(String name) {
+        try (final var in = Objects.requireNonNull(GDResponses.class.getResourceAsStream("/jdash/" + name), name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).strip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
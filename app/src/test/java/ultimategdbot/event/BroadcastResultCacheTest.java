@@ -0,0 +1,127 @@
+package ultimategdbot.event;
+
+import discord4j.common.util.Snowflake;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ultimategdbot.database.GdBroadcastResult;
+import ultimategdbot.database.GdBroadcastResultDao;
+import ultimategdbot.database.ImmutableGdBroadcastResult;
+import ultimategdbot.database.ImmutableMessageRef;
+import ultimategdbot.event.BroadcastResultCache.MessageId;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BroadcastResultCacheTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    @Mock
+    GdBroadcastResultDao dao;
+    @Captor
+    ArgumentCaptor<List<GdBroadcastResult>> batch;
+
+    private static List<MessageId> messages(long messageId) {
+        return List.of(new MessageId(Snowflake.of(1), Snowflake.of(messageId)),
+                new MessageId(Snowflake.of(2), Snowflake.of(messageId), 3));
+    }
+
+    private static List<Long> levelIds(List<GdBroadcastResult> results) {
+        return results.stream().map(GdBroadcastResult::levelId).toList();
+    }
+
+    @Test
+    void put_fullBatch_isWrittenWithoutWaitingForInterval() {
+        when(dao.saveAll(any())).thenReturn(Mono.empty());
+        final var cache = new BroadcastResultCache(dao, 3, NEVER);
+        cache.put(10, messages(100));
+        cache.put(11, messages(101));
+
+        verify(dao, after(200).never()).saveAll(any());
+        cache.put(12, messages(102));
+
+        verify(dao, timeout(1000)).saveAll(batch.capture());
+        assertEquals(List.of(10L, 11L, 12L), levelIds(batch.getValue()));
+    }
+
+    @Test
+    void put_partialBatch_isWrittenAfterInterval() {
+        when(dao.saveAll(any())).thenReturn(Mono.empty());
+        final var cache = new BroadcastResultCache(dao, 50, Duration.ofMillis(100));
+        cache.put(10, messages(100));
+
+        verify(dao, timeout(1000)).saveAll(batch.capture());
+        final var result = batch.getValue().get(0);
+        assertEquals(10, result.levelId());
+        assertEquals(List.of(ImmutableMessageRef.of(1, 100), ImmutableMessageRef.of(2, 100).withEmbedIndex(3)),
+                result.messages());
+    }
+
+    @Test
+    void put_sameLevelTwiceInBatch_writesLatestResultOnce() {
+        when(dao.saveAll(any())).thenReturn(Mono.empty());
+        final var cache = new BroadcastResultCache(dao, 3, NEVER);
+        cache.put(10, messages(100));
+        cache.put(11, messages(101));
+        cache.put(10, messages(102));
+
+        verify(dao, timeout(1000)).saveAll(batch.capture());
+        assertEquals(List.of(10L, 11L), levelIds(batch.getValue()));
+        assertEquals(102, batch.getValue().get(0).messages().get(0).messageId());
+    }
+
+    @Test
+    void put_afterFailedWrite_nextBatchIsStillWritten() {
+        when(dao.saveAll(any())).thenReturn(Mono.error(new RuntimeException("Database unavailable")), Mono.empty());
+        final var cache = new BroadcastResultCache(dao, 1, NEVER);
+        cache.put(10, messages(100));
+        verify(dao, timeout(1000)).saveAll(any());
+
+        cache.put(11, messages(101));
+
+        verify(dao, timeout(1000).times(2)).saveAll(batch.capture());
+        assertEquals(List.of(11L), levelIds(batch.getValue()));
+    }
+
+    @Test
+    void get_recentResult_isServedFromMemory() {
+        final var cache = new BroadcastResultCache(dao, 50, NEVER);
+        cache.put(10, messages(100));
+
+        StepVerifier.create(cache.get(10))
+                .expectNext(messages(100))
+                .verifyComplete();
+        verify(dao, never()).get(anyLong());
+    }
+
+    @Test
+    void get_persistedResult_isLoadedOnceFromDatabase() {
+        when(dao.get(10)).thenReturn(Mono.just(ImmutableGdBroadcastResult.builder()
+                .levelId(10)
+                .messages(List.of(ImmutableMessageRef.of(1, 100), ImmutableMessageRef.of(2, 100).withEmbedIndex(3)))
+                .insertDate(Instant.now())
+                .build()));
+        final var cache = new BroadcastResultCache(dao, 50, NEVER);
+
+        StepVerifier.create(cache.get(10))
+                .expectNext(messages(100))
+                .verifyComplete();
+        StepVerifier.create(cache.get(10))
+                .expectNext(messages(100))
+                .verifyComplete();
+        verify(dao, times(1)).get(10);
+    }
+}
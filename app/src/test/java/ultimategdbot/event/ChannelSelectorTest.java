@@ -0,0 +1,92 @@
+package ultimategdbot.event;
+
+import discord4j.common.util.Snowflake;
+import discord4j.rest.entity.RestChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChannelSelectorTest {
+
+    private static final List<RestChannel> CHANNELS = List.of(channel(1), channel(2), channel(3));
+
+    private static RestChannel channel(long id) {
+        final var channel = mock(RestChannel.class);
+        when(channel.getId()).thenReturn(Snowflake.of(id));
+        return channel;
+    }
+
+    private static List<RestChannel> select(ChannelSelector selector, int times) {
+        final var selected = new ArrayList<RestChannel>();
+        for (var i = 0; i < times; i++) {
+            selected.add(selector.select(CHANNELS));
+        }
+        return selected;
+    }
+
+    @Test
+    void roundRobin_cyclesThroughChannelsInOrder() {
+        final var a = CHANNELS.get(0);
+        final var b = CHANNELS.get(1);
+        final var c = CHANNELS.get(2);
+        assertEquals(List.of(a, b, c, a, b, c, a), select(ChannelSelector.roundRobin(), 7));
+    }
+
+    @Test
+    void roundRobin_concurrentSelections_useChannelsEvenly() throws InterruptedException {
+        final var selector = ChannelSelector.roundRobin();
+        final var counts = new ConcurrentHashMap<RestChannel, Integer>();
+        final var executor = Executors.newFixedThreadPool(8);
+        IntStream.range(0, 3000).forEach(i -> executor.execute(() ->
+                counts.merge(selector.select(CHANNELS), 1, Integer::sum)));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(Map.of(CHANNELS.get(0), 1000, CHANNELS.get(1), 1000, CHANNELS.get(2), 1000), counts);
+    }
+
+    @Test
+    void leastLoaded_selectsChannelWithLowestLoad() {
+        final var loads = Map.of(Snowflake.of(1), 5, Snowflake.of(2), 1, Snowflake.of(3), 3);
+        final var selector = ChannelSelector.leastLoaded(loads::get);
+
+        assertEquals(List.of(CHANNELS.get(1), CHANNELS.get(1), CHANNELS.get(1)), select(selector, 3));
+    }
+
+    @Test
+    void leastLoaded_tiedChannels_areUsedInTurn() {
+        final var loads = Map.of(Snowflake.of(1), 2, Snowflake.of(2), 0, Snowflake.of(3), 0);
+        final var selector = ChannelSelector.leastLoaded(loads::get);
+
+        final var b = CHANNELS.get(1);
+        final var c = CHANNELS.get(2);
+        assertEquals(List.of(b, c, b, c), select(selector, 4));
+    }
+
+    @Test
+    void leastLoaded_followsLoadChanges() {
+        final var loads = new ConcurrentHashMap<>(Map.of(Snowflake.of(1), 0, Snowflake.of(2), 4, Snowflake.of(3), 4));
+        final var selector = ChannelSelector.leastLoaded(loads::get);
+        assertSame(CHANNELS.get(0), selector.select(CHANNELS));
+
+        loads.put(Snowflake.of(1), 10);
+        loads.put(Snowflake.of(3), 2);
+        assertSame(CHANNELS.get(2), selector.select(CHANNELS));
+    }
+
+    @Test
+    void select_noChannels_returnsNull() {
+        assertNull(ChannelSelector.roundRobin().select(List.of()));
+        assertNull(ChannelSelector.leastLoaded(channelId -> 0).select(List.of()));
+    }
+}
@@ -0,0 +1,128 @@
+package ultimategdbot.event;
+
+import botrino.api.i18n.Translator;
+import discord4j.common.util.Snowflake;
+import discord4j.core.object.entity.Message;
+import discord4j.rest.entity.RestChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CrosspostSchedulerTest {
+
+    private static final Snowflake CHANNEL_A = Snowflake.of(1);
+    private static final Snowflake CHANNEL_B = Snowflake.of(2);
+
+    private final VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+    private final List<Long> published = new ArrayList<>();
+    private final RestChannel channelA = restChannel();
+    private final RestChannel channelB = restChannel();
+    private CrosspostScheduler scheduler;
+
+    private static RestChannel restChannel() {
+        final var channel = mock(RestChannel.class);
+        when(channel.createMessage(anyString())).thenReturn(Mono.empty());
+        return channel;
+    }
+
+    private Message message(Snowflake channelId, long messageId, boolean fails) {
+        final var message = mock(Message.class);
+        when(message.getChannelId()).thenReturn(channelId);
+        when(message.publish()).thenReturn(fails ? Mono.error(new RuntimeException("Missing permissions"))
+                : Mono.fromRunnable(() -> published.add(messageId)));
+        return message;
+    }
+
+    private void submit(RestChannel channel, Snowflake channelId, long... messageIds) {
+        for (final var messageId : messageIds) {
+            scheduler.submit(channel, message(channelId, messageId, false), "event " + messageId);
+        }
+    }
+
+    private static long[] range(long from, long to) {
+        return LongStream.rangeClosed(from, to).toArray();
+    }
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new CrosspostScheduler(mock(Translator.class), timer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.dispose();
+    }
+
+    @Test
+    void submit_withinBudget_publishesRightAwayWithoutNotice() {
+        submit(channelA, CHANNEL_A, range(1, 10));
+
+        assertEquals(LongStream.rangeClosed(1, 10).boxed().toList(), published);
+        verify(channelA, never()).createMessage(anyString());
+        assertEquals(10, scheduler.load(CHANNEL_A));
+    }
+
+    @Test
+    void submit_overBudget_waitsForWindowAndPostsSingleNotice() {
+        submit(channelA, CHANNEL_A, range(1, 13));
+
+        assertEquals(LongStream.rangeClosed(1, 10).boxed().toList(), published);
+        verify(channelA, times(1)).createMessage(anyString());
+        // 3 messages waiting, plus the 10 crossposts of the current window
+        assertEquals(13, scheduler.load(CHANNEL_A));
+
+        timer.advanceTimeBy(Duration.ofMinutes(59));
+        assertEquals(10, published.size());
+
+        timer.advanceTimeBy(Duration.ofMinutes(1));
+        assertEquals(LongStream.rangeClosed(1, 13).boxed().toList(), published);
+        verify(channelA, times(1)).createMessage(anyString());
+        assertEquals(3, scheduler.load(CHANNEL_A));
+    }
+
+    @Test
+    void submit_overBudgetAgainAfterBacklogCleared_postsNewNotice() {
+        submit(channelA, CHANNEL_A, range(1, 11));
+        timer.advanceTimeBy(Duration.ofHours(1));
+        assertEquals(11, published.size());
+
+        // Message 11 used one crosspost of the new window
+        submit(channelA, CHANNEL_A, range(12, 21));
+
+        assertEquals(20, published.size());
+        verify(channelA, times(2)).createMessage(anyString());
+    }
+
+    @Test
+    void submit_exhaustedChannel_doesNotDelayOtherChannels() {
+        submit(channelA, CHANNEL_A, range(1, 11));
+        submit(channelB, CHANNEL_B, 100);
+
+        assertEquals(11, published.size());
+        assertEquals(100, published.get(10));
+        verify(channelB, never()).createMessage(anyString());
+        assertEquals(1, scheduler.load(CHANNEL_B));
+        assertEquals(0, scheduler.load(Snowflake.of(3)));
+    }
+
+    @Test
+    void submit_afterFailedPublish_publishesNextMessage() {
+        scheduler.submit(channelA, message(CHANNEL_A, 1, true), "event 1");
+        submit(channelA, CHANNEL_A, 2);
+
+        assertEquals(List.of(2L), published);
+        // The failed crosspost still used its share of the budget
+        assertEquals(2, scheduler.load(CHANNEL_A));
+    }
+}
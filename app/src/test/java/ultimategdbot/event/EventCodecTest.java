@@ -0,0 +1,112 @@
+package ultimategdbot.event;
+
+import jdash.client.GDClient;
+import jdash.common.DemonDifficulty;
+import jdash.common.Difficulty;
+import jdash.common.Length;
+import jdash.common.QualityRating;
+import jdash.common.entity.GDDailyInfo;
+import jdash.common.entity.GDLevel;
+import jdash.common.entity.GDSong;
+import jdash.common.entity.GDUserProfile;
+import jdash.events.object.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import reactor.core.publisher.Mono;
+import ultimategdbot.GDResponses;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCodecTest {
+
+    private final EventCodec codec = new EventCodec();
+
+    private static GDLevel level(long id, int downloads, Optional<GDSong> song) {
+        return new GDLevel(
+                id, "Bloodbath", 503085L, "Test description",
+                Difficulty.INSANE, DemonDifficulty.EXTREME,
+                10, 50, QualityRating.EPIC,
+                downloads, 1505455, Length.XL,
+                3, true, 1, 21, 24746,
+                true, false,
+                Optional.empty(), 0,
+                Optional.of(844899L),
+                song,
+                Optional.of("Riot"),
+                Optional.of(503085L),
+                false, false
+        );
+    }
+
+    private static GDUserProfile profile() {
+        return GDClient.create()
+                .withRouter(request -> Mono.just(GDResponses.GET_USER_PROFILE))
+                .getUserProfile(98006)
+                .blockOptional()
+                .orElseThrow();
+    }
+
+    /**
+     * One event of each type persisted by the journal, with as many optional fields populated as possible.
+     */
+    static Stream<Object> events() {
+        final var level = level(10565740L, 26672952, Optional.of(GDSong.getOfficialSong(0).orElseThrow()));
+        final var updated = level(10565740L, 26672953, Optional.empty());
+        final var before = new GDDailyInfo(2500, Duration.ZERO);
+        final var after = new GDDailyInfo(2501, Duration.ofHours(23).plusSeconds(59));
+        return Stream.of(
+                new AwardedLevelAdd(level),
+                new AwardedLevelRemove(level),
+                new AwardedLevelUpdate(level, updated),
+                new DailyLevelChange(before, after, false),
+                new DailyLevelChange(before, after, true),
+                new EventLevelChange(before, after),
+                ImmutableModStatusUpdate.of(profile(), ModStatusUpdate.Type.PROMOTED_TO_ELDER));
+    }
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void decode_encodedEvent_returnsEqualEvent(Object event) throws IOException {
+        assertEquals(event, codec.decode(codec.encode(event)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void decodeRecord_encodedRecord_returnsEqualEventAndTimestamp(Object event) throws IOException {
+        final var line = new String(codec.encodeRecord(1234L, event), StandardCharsets.UTF_8);
+        final var recorded = codec.decodeRecord(line);
+        assertEquals(1234L, recorded.timestamp());
+        assertEquals(event, recorded.event());
+    }
+
+    @Test
+    void events_coverEveryPersistedType() {
+        final var covered = events()
+                .map(event -> EventCodec.TYPES.values().stream()
+                        .filter(type -> type.isInstance(event))
+                        .findAny()
+                        .orElseThrow())
+                .collect(Collectors.toSet());
+        assertEquals(Set.copyOf(EventCodec.TYPES.values()), covered);
+    }
+
+    @Test
+    void decode_unknownType_throwsIOException() {
+        final var payload = "{\"type\":\"unknown\",\"event\":{}}".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> codec.decode(payload));
+    }
+
+    @Test
+    void encode_unsupportedType_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> codec.encode("not an event"));
+    }
+}
@@ -0,0 +1,174 @@
+package ultimategdbot.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTest {
+
+    private static final int SEGMENT_SIZE = 64;
+    private static final int MAX_SEGMENTS = 3;
+
+    @TempDir
+    Path dir;
+
+    private static List<EventJournal.Entry> drain(EventJournal journal) {
+        final var entries = new ArrayList<EventJournal.Entry>();
+        journal.poll().ifPresent(entries::add);
+        while (entries.size() > 0 && entries.get(entries.size() - 1) != null) {
+            final var next = journal.poll().orElse(null);
+            if (next == null) {
+                break;
+            }
+            entries.add(next);
+        }
+        return entries;
+    }
+
+    private static List<String> payloads(List<EventJournal.Entry> entries) {
+        return entries.stream().map(entry -> new String(entry.payload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long segmentCount() throws IOException {
+        try (final var files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    @Test
+    void poll_appendedEntries_returnsThemInOrder() throws IOException {
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            for (var i = 0; i < 5; i++) {
+                assertTrue(journal.append(bytes("event-" + i)));
+            }
+            assertEquals(List.of("event-0", "event-1", "event-2", "event-3", "event-4"), payloads(drain(journal)));
+            assertTrue(journal.poll().isEmpty());
+            assertEquals(5, journal.pendingCount());
+        }
+    }
+
+    @Test
+    void open_unacknowledgedEntries_replaysThem() throws IOException {
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            journal.append(bytes("event-0"));
+            journal.append(bytes("event-1"));
+            journal.append(bytes("event-2"));
+            final var entries = drain(journal);
+            journal.acknowledge(entries.get(0).position());
+            journal.acknowledge(entries.get(2).position());
+        }
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            // Entries are replayed from the oldest unacknowledged one
+            assertEquals(List.of("event-1", "event-2"), payloads(drain(journal)));
+        }
+    }
+
+    @Test
+    void acknowledge_allEntriesOfSegment_deletesSegment() throws IOException {
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            for (var i = 0; i < 5; i++) {
+                journal.append(bytes("event-" + i));
+            }
+            assertEquals(2, segmentCount());
+            for (final var entry : drain(journal)) {
+                journal.acknowledge(entry.position());
+            }
+            assertEquals(1, segmentCount());
+            assertEquals(0, journal.pendingCount());
+        }
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            assertTrue(journal.poll().isEmpty());
+        }
+    }
+
+    @Test
+    void reject_failedEntry_doesNotPreventSegmentReclaim() throws IOException {
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            for (var i = 0; i < 5; i++) {
+                journal.append(bytes("event-" + i));
+            }
+            assertEquals(2, segmentCount());
+            final var entries = drain(journal);
+            journal.reject(entries.get(0).position());
+            for (final var entry : entries.subList(1, entries.size())) {
+                journal.acknowledge(entry.position());
+            }
+            assertEquals(1, segmentCount());
+            assertEquals(0, journal.pendingCount());
+            // The rejected entry is kept in the dead letter file, with its header
+            final var deadLetter = Files.readAllBytes(dir.resolve(EventJournal.DEAD_LETTER_FILE));
+            assertEquals(8 + "event-0".length(), deadLetter.length);
+            assertEquals("event-0", new String(deadLetter, 8, deadLetter.length - 8, StandardCharsets.UTF_8));
+        }
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            assertTrue(journal.poll().isEmpty());
+        }
+    }
+
+    @Test
+    void replayDeadLetters_rejectedEntries_appendsThemAgainInOrder() throws IOException {
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            journal.append(bytes("event-0"));
+            journal.append(bytes("event-1"));
+            final var entries = drain(journal);
+            journal.reject(entries.get(0).position());
+            journal.reject(entries.get(1).position());
+            assertEquals(2, journal.deadLetterCount());
+
+            assertEquals(2, journal.replayDeadLetters());
+            assertEquals(0, journal.deadLetterCount());
+            assertFalse(Files.exists(dir.resolve(EventJournal.DEAD_LETTER_FILE)));
+            assertEquals(List.of("event-0", "event-1"), payloads(drain(journal)));
+        }
+    }
+
+    @Test
+    void replayDeadLetters_journalFull_keepsEntriesInDeadLetterFile() throws IOException {
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            journal.append(bytes("event-0"));
+            journal.reject(drain(journal).get(0).position());
+            var appended = 0;
+            while (journal.append(bytes("filler-" + appended))) {
+                appended++;
+            }
+
+            assertEquals(0, journal.replayDeadLetters());
+            assertEquals(1, journal.deadLetterCount());
+        }
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            // The count is restored from the dead letter file
+            assertEquals(1, journal.deadLetterCount());
+        }
+    }
+
+    @Test
+    void append_maxSegmentsReached_returnsFalse() throws IOException {
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            var appended = 0;
+            while (journal.append(bytes("event-" + appended))) {
+                appended++;
+            }
+            assertEquals(MAX_SEGMENTS, segmentCount());
+            assertEquals(appended, drain(journal).size());
+        }
+    }
+
+    @Test
+    void append_entryLargerThanSegment_throwsIllegalArgument() throws IOException {
+        try (final var journal = EventJournal.open(dir, SEGMENT_SIZE, MAX_SEGMENTS)) {
+            assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[SEGMENT_SIZE]));
+        }
+    }
+}
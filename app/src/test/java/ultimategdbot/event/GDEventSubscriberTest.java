@@ -0,0 +1,104 @@
+package ultimategdbot.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GDEventSubscriberTest {
+
+    private final Map<Object, Mono<Void>> processing = new ConcurrentHashMap<>();
+    private final List<Object> started = Collections.synchronizedList(new ArrayList<>());
+    private final BlockingQueue<Object> acknowledged = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Object> failed = new LinkedBlockingQueue<>();
+    private final DispatchStats stats = new DispatchStats();
+    private GDEventService gdEventService;
+
+    private static List<Object> take(BlockingQueue<Object> queue, int count) throws InterruptedException {
+        final var events = new ArrayList<>();
+        for (var i = 0; i < count; i++) {
+            final var event = queue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "Timed out after " + events);
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * Events are strings routed to the lane named after their first character, except "x" which is not routed.
+     */
+    @BeforeEach
+    void setUp() {
+        gdEventService = mock(GDEventService.class);
+        when(gdEventService.rateBatchSize()).thenReturn(1);
+        when(gdEventService.route(any())).thenAnswer(invocation -> {
+            final String event = invocation.getArgument(0);
+            return event.equals("x") ? Optional.empty()
+                    : Optional.of(new RoutedEvent(event, null, null, event.charAt(0)));
+        });
+        when(gdEventService.process(any())).thenAnswer(invocation -> {
+            final RoutedEvent routed = invocation.getArgument(0);
+            started.add(routed.event());
+            return processing.getOrDefault(routed.event(), Mono.empty());
+        });
+    }
+
+    private void dispatch(String... events) {
+        Flux.just(events).subscribe(new GDEventSubscriber(gdEventService, 4, stats, acknowledged::add,
+                (event, error) -> failed.add(event)));
+    }
+
+    @Test
+    void sameLane_eventsAreProcessedInFiringOrder() throws InterruptedException {
+        // Earlier events take longer, so they would finish last if the lane processed them concurrently
+        for (var i = 1; i <= 5; i++) {
+            processing.put("a" + i, Mono.delay(Duration.ofMillis(60 - 10 * i)).then());
+        }
+        dispatch("a1", "a2", "a3", "a4", "a5");
+
+        assertEquals(List.of("a1", "a2", "a3", "a4", "a5"), take(acknowledged, 5));
+        assertEquals(List.of("a1", "a2", "a3", "a4", "a5"), started);
+    }
+
+    @Test
+    void blockedLane_doesNotDelayOtherLanes() throws InterruptedException {
+        final Sinks.Empty<Void> a1 = Sinks.empty();
+        processing.put("a1", a1.asMono());
+        dispatch("a1", "a2", "b1", "x");
+
+        assertEquals(Set.of("b1", "x"), Set.copyOf(take(acknowledged, 2)));
+        assertFalse(started.contains("a2"), "a2 started before a1 completed");
+
+        a1.tryEmitEmpty();
+        assertEquals(List.of("a1", "a2"), take(acknowledged, 2));
+    }
+
+    @Test
+    void failedEvent_isReportedAndLaneContinues() throws InterruptedException {
+        processing.put("a1", Mono.error(new RuntimeException("Discord unavailable")));
+        dispatch("a1", "a2");
+
+        assertEquals(List.of("a1"), take(failed, 1));
+        assertEquals(List.of("a2"), take(acknowledged, 1));
+        assertEquals(2, stats.processed());
+        assertEquals(1, stats.failed());
+    }
+}
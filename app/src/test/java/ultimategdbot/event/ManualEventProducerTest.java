@@ -0,0 +1,141 @@
+package ultimategdbot.event;
+
+import discord4j.rest.http.client.ClientException;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import jdash.client.exception.ActionFailedException;
+import jdash.common.entity.GDDailyInfo;
+import jdash.events.object.DailyLevelChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ultimategdbot.MutableClock;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ManualEventProducerTest {
+
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(2);
+    private static final DailyLevelChange EVENT = new DailyLevelChange(new GDDailyInfo(1, Duration.ZERO),
+            new GDDailyInfo(2, Duration.ofHours(1)), false);
+
+    @TempDir
+    Path dir;
+
+    private final MutableClock clock = new MutableClock(Instant.EPOCH);
+    private EventJournal journal;
+    private ManualEventProducer producer;
+
+    private static ClientException clientException(HttpResponseStatus status) {
+        final var e = mock(ClientException.class);
+        when(e.getStatus()).thenReturn(status);
+        return e;
+    }
+
+    private List<Object> poll() {
+        return producer.produce(null).collectList().block();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = EventJournal.open(dir, 4096, 4);
+        producer = new ManualEventProducer(journal, 10, MIN_BACKOFF, MAX_BACKOFF, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void fail_temporaryError_producesEventAgainAfterBackoff() {
+        producer.submit(EVENT);
+        final var event = poll().get(0);
+
+        producer.fail(event, new TimeoutException());
+        assertEquals(List.of(), poll());
+        clock.advance(MIN_BACKOFF.minusSeconds(1));
+        assertEquals(List.of(), poll());
+        clock.advance(Duration.ofSeconds(1));
+        final var retried = poll();
+        assertEquals(List.of(EVENT), retried);
+        // The entry stays pending in the journal until it is acknowledged
+        assertEquals(1, journal.pendingCount());
+
+        producer.acknowledge(retried.get(0));
+        assertEquals(0, journal.pendingCount());
+        assertEquals(0, producer.deadLetterCount());
+    }
+
+    @Test
+    void fail_repeatedTemporaryErrors_doublesBackoffUpToMaximum() {
+        producer.submit(EVENT);
+        var event = poll().get(0);
+        for (final var backoff : List.of(MIN_BACKOFF, MIN_BACKOFF.multipliedBy(2), MAX_BACKOFF, MAX_BACKOFF)) {
+            producer.fail(event, new TimeoutException());
+            clock.advance(backoff.minusSeconds(1));
+            assertEquals(List.of(), poll());
+            clock.advance(Duration.ofSeconds(1));
+            event = poll().get(0);
+        }
+        assertEquals(EVENT, event);
+    }
+
+    @Test
+    void fail_permanentError_movesEventToDeadLetterFile() {
+        producer.submit(EVENT);
+        final var event = poll().get(0);
+
+        producer.fail(event, clientException(HttpResponseStatus.NOT_FOUND));
+        clock.advance(MAX_BACKOFF);
+
+        assertEquals(List.of(), poll());
+        assertEquals(0, journal.pendingCount());
+        assertEquals(1, producer.deadLetterCount());
+    }
+
+    @Test
+    void replayDeadLetters_rejectedEvent_isProducedAgain() throws IOException {
+        producer.submit(EVENT);
+        producer.fail(poll().get(0), mock(ActionFailedException.class));
+
+        assertEquals(1, producer.replayDeadLetters());
+        assertEquals(List.of(EVENT), poll());
+        assertEquals(0, producer.deadLetterCount());
+    }
+
+    @Test
+    void produce_unreadableEntry_movesItToDeadLetterFileAndContinues() throws IOException {
+        journal.append("not json".getBytes(StandardCharsets.UTF_8));
+        producer.submit(EVENT);
+
+        assertEquals(List.of(EVENT), poll());
+        assertEquals(1, producer.deadLetterCount());
+    }
+
+    @Test
+    void isPermanent_missingChannelOrLevel_returnsTrue() {
+        assertTrue(ManualEventProducer.isPermanent(clientException(HttpResponseStatus.NOT_FOUND)));
+        assertTrue(ManualEventProducer.isPermanent(clientException(HttpResponseStatus.FORBIDDEN)));
+        assertTrue(ManualEventProducer.isPermanent(new RuntimeException(mock(ActionFailedException.class))));
+    }
+
+    @Test
+    void isPermanent_outageTimeoutOrRateLimit_returnsFalse() {
+        assertFalse(ManualEventProducer.isPermanent(clientException(HttpResponseStatus.SERVICE_UNAVAILABLE)));
+        assertFalse(ManualEventProducer.isPermanent(clientException(HttpResponseStatus.TOO_MANY_REQUESTS)));
+        assertFalse(ManualEventProducer.isPermanent(new TimeoutException()));
+        assertFalse(ManualEventProducer.isPermanent(new IllegalStateException("Unable to queue event")));
+    }
+}
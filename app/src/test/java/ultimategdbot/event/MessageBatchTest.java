@@ -0,0 +1,145 @@
+package ultimategdbot.event;
+
+import discord4j.core.GatewayDiscordClient;
+import discord4j.core.object.Embed;
+import discord4j.core.object.entity.Attachment;
+import discord4j.core.object.entity.Message;
+import discord4j.core.spec.EmbedCreateSpec;
+import discord4j.core.spec.MessageCreateFields;
+import discord4j.core.spec.MessageCreateSpec;
+import discord4j.discordjson.Id;
+import discord4j.discordjson.json.AttachmentData;
+import discord4j.discordjson.json.EmbedData;
+import discord4j.discordjson.json.EmbedThumbnailData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageBatchTest {
+
+    private static final byte[] AUTHOR = {1, 2, 3};
+
+    @Mock
+    GatewayDiscordClient gateway;
+
+    @Mock
+    Message message;
+
+    private static MessageTemplate template(String title, byte[] difficulty) {
+        return new MessageTemplate(MessageCreateSpec.create().withEmbeds(EmbedCreateSpec.builder()
+                .title(title)
+                .thumbnail("attachment://difficulty.png")
+                .author("Rate", null, "attachment://author.png")
+                .build()), List.of(
+                new MessageTemplate.FileData("difficulty.png", difficulty),
+                new MessageTemplate.FileData("author.png", AUTHOR)));
+    }
+
+    private static List<String> fileNames(List<MessageCreateFields.File> files) {
+        return files.stream().map(MessageCreateFields.File::name).toList();
+    }
+
+    private Embed receivedEmbed(String title, String thumbnailFile) {
+        return new Embed(gateway, EmbedData.builder()
+                .title(title)
+                .thumbnail(EmbedThumbnailData.builder()
+                        .url("https://cdn.discordapp.com/attachments/1/2/" + thumbnailFile + "?ex=ffffffff")
+                        .build())
+                .build());
+    }
+
+    private Attachment attachment(long id, String fileName) {
+        return new Attachment(gateway, AttachmentData.builder()
+                .id(Id.of(id))
+                .filename(fileName)
+                .size(3)
+                .url("https://cdn.discordapp.com/attachments/1/2/" + fileName)
+                .proxyUrl("https://media.discordapp.net/attachments/1/2/" + fileName)
+                .build());
+    }
+
+    @Test
+    void combine_templatesWithSameFileNames_renamesAttachmentsPerTemplate() {
+        final var spec = MessageBatch.combine(List.of(template("L0", new byte[] {0}), template("L1", new byte[] {1})));
+
+        assertEquals(List.of("L0", "L1"), spec.embeds().stream().map(EmbedCreateSpec::title).toList());
+        assertEquals("attachment://0_difficulty.png", spec.embeds().get(0).thumbnail());
+        assertEquals("attachment://1_difficulty.png", spec.embeds().get(1).thumbnail());
+    }
+
+    @Test
+    void combine_identicalAttachments_uploadsThemOnce() {
+        final var spec = MessageBatch.combine(List.of(template("L0", new byte[] {0}), template("L1", new byte[] {1})));
+
+        assertEquals(List.of("0_difficulty.png", "0_author.png", "1_difficulty.png"), fileNames(spec.files()));
+        // The second embed refers to the author icon uploaded for the first one
+        assertEquals("attachment://0_author.png", spec.embeds().get(1).author().iconUrl());
+    }
+
+    @Test
+    void partition_tooManyDistinctAttachments_splitsBatch() {
+        final var templates = IntStream.range(0, 10)
+                .mapToObj(i -> template("L" + i, new byte[] {(byte) i}))
+                .toList();
+
+        final var groups = MessageBatch.partition(templates);
+
+        // 9 difficulty images and the shared author icon fill the first message
+        assertEquals(List.of(9, 1), groups.stream().map(List::size).toList());
+        groups.forEach(group -> assertTrue(MessageBatch.combine(group).files().size() <= MessageBatch.MAX_FILES));
+    }
+
+    @Test
+    void partition_sharedAttachments_keepsUpToMaxEmbedsPerGroup() {
+        final var templates = new ArrayList<MessageTemplate>();
+        for (var i = 0; i < 12; i++) {
+            templates.add(template("L" + i, new byte[] {0}));
+        }
+
+        assertEquals(List.of(10, 2), MessageBatch.partition(templates).stream().map(List::size).toList());
+    }
+
+    @Test
+    void replaceEmbed_middleEmbed_preservesOtherEmbedsAtTheirIndex() {
+        when(message.getEmbeds()).thenReturn(List.of(
+                receivedEmbed("L0", "0_difficulty.png"),
+                receivedEmbed("L1", "1_difficulty.png"),
+                receivedEmbed("L2", "2_difficulty.png")));
+        when(message.getAttachments()).thenReturn(List.of(
+                attachment(10, "0_difficulty.png"),
+                attachment(11, "1_difficulty.png"),
+                attachment(12, "2_difficulty.png")));
+
+        final var spec = MessageBatch.replaceEmbed(message, 1, template("L1 updated", new byte[] {5}), "x");
+
+        final var embeds = spec.embedsOrElse(List.of());
+        assertEquals(List.of("L0", "L1 updated", "L2"), embeds.stream().map(EmbedCreateSpec::title).toList());
+        assertEquals("attachment://x_difficulty.png", embeds.get(1).thumbnail());
+        assertEquals(List.of("x_difficulty.png", "x_author.png"), fileNames(spec.files()));
+    }
+
+    @Test
+    void replaceEmbed_attachmentsOfReplacedEmbed_areRemoved() {
+        when(message.getEmbeds()).thenReturn(List.of(
+                receivedEmbed("L0", "0_difficulty.png"),
+                receivedEmbed("L1", "1_difficulty.png")));
+        when(message.getAttachments()).thenReturn(List.of(
+                attachment(10, "0_difficulty.png"),
+                attachment(11, "1_difficulty.png")));
+
+        final var spec = MessageBatch.replaceEmbed(message, 1, template("L1 updated", new byte[] {5}), "x");
+
+        assertEquals(List.of("0_difficulty.png"), spec.attachmentsOrElse(List.of()).stream()
+                .map(Attachment::getFilename)
+                .toList());
+    }
+}
@@ -0,0 +1,140 @@
+package ultimategdbot.event;
+
+import botrino.api.config.ConfigContainer;
+import jdash.client.GDClient;
+import jdash.common.entity.GDUserProfile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ultimategdbot.GDResponses;
+import ultimategdbot.config.ImmutableModAudit;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.database.GdLinkedUserDao;
+import ultimategdbot.database.GdModDao;
+import ultimategdbot.database.ImmutableGdMod;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ModAuditServiceTest {
+
+    private final GdModDao gdModDao = mock(GdModDao.class);
+    private final ManualEventProducer eventProducer = mock(ManualEventProducer.class);
+    private ModAuditService service;
+
+    /**
+     * A moderator, with an elder level of 0.
+     */
+    private static GDUserProfile profile() {
+        return GDClient.create()
+                .withRouter(request -> Mono.just(GDResponses.GET_USER_PROFILE))
+                .getUserProfile(98006)
+                .blockOptional()
+                .orElseThrow();
+    }
+
+    @BeforeEach
+    void setUp() {
+        final var config = mock(UltimateGDBotConfig.class, RETURNS_DEEP_STUBS);
+        when(config.gd().modAudit()).thenReturn(ImmutableModAudit.builder().build());
+        when(config.gd().client().requestLimiter()).thenReturn(Optional.empty());
+        final var configContainer = mock(ConfigContainer.class);
+        when(configContainer.get(UltimateGDBotConfig.class)).thenReturn(config);
+        service = new ModAuditService(mock(GDClient.class), gdModDao, mock(GdLinkedUserDao.class), eventProducer,
+                configContainer);
+    }
+
+    /**
+     * Pins the transitions previously implemented by /mod-wave. An elder level of -1 means that the user is not a
+     * moderator, and an empty type means that no event is submitted.
+     */
+    @ParameterizedTest(name = "{0} -> {1}: {2}")
+    @CsvSource({
+            "-1, -1, ",
+            "-1,  0, PROMOTED_TO_MOD",
+            "-1,  1, PROMOTED_TO_ELDER",
+            "-1,  2, PROMOTED_TO_LBMOD",
+            " 0, -1, DEMOTED_FROM_MOD",
+            " 0,  0, ",
+            " 0,  1, PROMOTED_TO_ELDER",
+            " 0,  2, PROMOTED_TO_LBMOD",
+            " 1, -1, DEMOTED_FROM_ELDER",
+            " 1,  0, DEMOTED_FROM_ELDER",
+            " 1,  1, ",
+            " 1,  2, PROMOTED_TO_LBMOD",
+            " 2, -1, DEMOTED_FROM_LBMOD",
+            " 2,  0, PROMOTED_TO_MOD",
+            " 2,  1, PROMOTED_TO_ELDER",
+            " 2,  2, ",
+    })
+    void transition_everyElderLevelPair_matchesModWave(int previous, int current, ModStatusUpdate.Type expected) {
+        assertEquals(Optional.ofNullable(expected), ModAuditService.transition(previous, current));
+    }
+
+    @Test
+    void update_promotion_savesModBeforeSubmittingEvent() {
+        final var profile = profile();
+        when(gdModDao.get(98006)).thenReturn(Mono.empty());
+        when(gdModDao.save(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.update(profile))
+                .expectNext(true)
+                .verifyComplete();
+
+        final var inOrder = inOrder(gdModDao, eventProducer);
+        inOrder.verify(gdModDao).save(ImmutableGdMod.builder()
+                .accountId(98006)
+                .name("Alex1304")
+                .elder(0)
+                .build());
+        inOrder.verify(eventProducer)
+                .submit(ImmutableModStatusUpdate.of(profile, ModStatusUpdate.Type.PROMOTED_TO_MOD));
+    }
+
+    @Test
+    void update_failedSave_submitsNoEvent() {
+        when(gdModDao.get(98006)).thenReturn(Mono.empty());
+        when(gdModDao.save(any())).thenReturn(Mono.error(new RuntimeException("Database unavailable")));
+
+        StepVerifier.create(service.update(profile()))
+                .verifyErrorMessage("Database unavailable");
+
+        verify(eventProducer, never()).submit(any());
+    }
+
+    @Test
+    void update_sameRole_submitsNoEvent() {
+        when(gdModDao.get(98006)).thenReturn(Mono.just(ImmutableGdMod.builder()
+                .accountId(98006)
+                .name("Alex1304")
+                .elder(0)
+                .build()));
+        when(gdModDao.save(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.update(profile()))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(eventProducer, never()).submit(any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.1, 0, 1.01})
+    void modAuditConfig_budgetShareOutOfRange_isRejected(double budgetShare) {
+        assertThrows(IllegalStateException.class, () -> ImmutableModAudit.builder().budgetShare(budgetShare).build());
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.01, 0.5, 1})
+    void modAuditConfig_budgetShareInRange_isAccepted(double budgetShare) {
+        assertEquals(budgetShare, ImmutableModAudit.builder().budgetShare(budgetShare).build().budgetShare());
+    }
+}
@@ -0,0 +1,82 @@
+package ultimategdbot.metrics;
+
+import discord4j.core.object.command.ApplicationCommandInteraction;
+import discord4j.core.object.command.Interaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CommandMetricsTest {
+
+    private static final String CALLBACK_URL = "https://discord.com/api/v10/interactions/123/%s/callback";
+    private static final String FOLLOWUP_URL = "https://discord.com/api/v10/webhooks/456/%s?wait=true";
+    private static final int CHANNEL_MESSAGE_WITH_SOURCE = 4;
+    private static final int DEFERRED_CHANNEL_MESSAGE_WITH_SOURCE = 5;
+    private static final int DEFERRED_UPDATE_MESSAGE = 6;
+
+    private static Interaction interaction(String command, String token) {
+        final var interaction = mock(Interaction.class);
+        when(interaction.getToken()).thenReturn(token);
+        if (command == null) {
+            when(interaction.getCommandInteraction()).thenReturn(Optional.empty());
+        } else {
+            final var commandInteraction = mock(ApplicationCommandInteraction.class);
+            when(commandInteraction.getName()).thenReturn(Optional.of(command));
+            when(interaction.getCommandInteraction()).thenReturn(Optional.of(commandInteraction));
+        }
+        return interaction;
+    }
+
+    private static long recorded(String command) {
+        return Metrics.timer(CommandMetrics.LATENCY, "", "command", command, "outcome", "success").count();
+    }
+
+    private static void respond(String url, String token, int callbackType) {
+        CommandMetrics.interactionToken(url.formatted(token))
+                .ifPresent(t -> CommandMetrics.callback(t, callbackType));
+    }
+
+    @Test
+    void interactionToken_callbackAndWebhookUrls_extractsToken() {
+        assertEquals(Optional.of("abc"), CommandMetrics.interactionToken(CALLBACK_URL.formatted("abc")));
+        assertEquals(Optional.of("abc"), CommandMetrics.interactionToken(FOLLOWUP_URL.formatted("abc")));
+        assertEquals(Optional.empty(), CommandMetrics.interactionToken("https://discord.com/api/v10/channels/1"));
+    }
+
+    @Test
+    void callback_replyOnlyCommand_recordsLatency() {
+        CommandMetrics.start(interaction("test-reply", "reply-token"));
+
+        respond(CALLBACK_URL, "reply-token", CHANNEL_MESSAGE_WITH_SOURCE);
+
+        assertEquals(1, recorded("test-reply"));
+        // The interaction is no longer pending, so an edit of the reply is not recorded twice
+        CommandMetrics.complete("reply-token");
+        assertEquals(1, recorded("test-reply"));
+    }
+
+    @Test
+    void callback_deferredReply_recordsLatencyOnFollowup() {
+        CommandMetrics.start(interaction("test-deferred", "deferred-token"));
+
+        respond(CALLBACK_URL, "deferred-token", DEFERRED_CHANNEL_MESSAGE_WITH_SOURCE);
+        assertEquals(0, recorded("test-deferred"));
+
+        CommandMetrics.interactionToken(FOLLOWUP_URL.formatted("deferred-token")).ifPresent(CommandMetrics::complete);
+        assertEquals(1, recorded("test-deferred"));
+    }
+
+    @Test
+    void callback_componentDeferredUpdate_recordsLatency() {
+        final var before = recorded("component");
+        CommandMetrics.start(interaction(null, "component-token"));
+
+        respond(CALLBACK_URL, "component-token", DEFERRED_UPDATE_MESSAGE);
+
+        assertEquals(before + 1, recorded("component"));
+    }
+}
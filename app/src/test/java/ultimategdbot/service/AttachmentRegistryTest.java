@@ -0,0 +1,174 @@
+package ultimategdbot.service;
+
+import discord4j.discordjson.json.AttachmentData;
+import discord4j.discordjson.json.MessageData;
+import discord4j.rest.entity.RestChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ultimategdbot.MutableClock;
+import ultimategdbot.exception.RenderBusyException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttachmentRegistryTest {
+
+    private static final Instant NOW = Instant.ofEpochSecond(0x6700_0000L);
+
+    @Mock
+    RestChannel channel;
+
+    private MutableClock clock;
+    private AttachmentRegistry registry;
+    private AtomicInteger contentCalls;
+
+    private static String cdnUrl(Instant expiry) {
+        return "https://cdn.discordapp.com/attachments/1/2/icon.png?ex=" + Long.toHexString(expiry.getEpochSecond()) +
+                "&is=0&hm=abc";
+    }
+
+    private static MessageData uploaded(String url) {
+        final var attachment = mock(AttachmentData.class);
+        when(attachment.url()).thenReturn(url);
+        final var message = mock(MessageData.class);
+        when(message.attachments()).thenReturn(List.of(attachment));
+        return message;
+    }
+
+    private Supplier<Mono<byte[]>> content(Mono<byte[]> bytes) {
+        return () -> {
+            contentCalls.incrementAndGet();
+            return bytes;
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        registry = new AttachmentRegistry(channel, clock);
+        contentCalls = new AtomicInteger();
+    }
+
+    @Test
+    void expiryOf_signedUrl_readsHexadecimalExpiry() {
+        final var expiry = NOW.plus(Duration.ofHours(24));
+        assertEquals(expiry, AttachmentRegistry.expiryOf(cdnUrl(expiry), NOW));
+    }
+
+    @Test
+    void expiryOf_urlWithoutExpiry_assumesDefaultValidity() {
+        final var expiry = AttachmentRegistry.expiryOf("https://cdn.discordapp.com/attachments/1/2/icon.png", NOW);
+        assertTrue(expiry.isAfter(NOW));
+    }
+
+    @Test
+    void url_sameKeyTwice_uploadsOnce() {
+        final var url = cdnUrl(NOW.plus(Duration.ofHours(24)));
+        final var message = uploaded(url);
+        when(channel.createMessage(any())).thenReturn(Mono.just(message));
+
+        StepVerifier.create(registry.url("icon", "icon.png", content(Mono.just(new byte[] {1}))))
+                .expectNext(url)
+                .verifyComplete();
+        StepVerifier.create(registry.url("icon", "icon.png", content(Mono.just(new byte[] {1}))))
+                .expectNext(url)
+                .verifyComplete();
+
+        verify(channel, times(1)).createMessage(any());
+        assertEquals(1, contentCalls.get());
+    }
+
+    @Test
+    void url_nearExpiry_uploadsAgain() {
+        final var first = cdnUrl(NOW.plus(Duration.ofHours(2)));
+        final var second = cdnUrl(NOW.plus(Duration.ofHours(26)));
+        final var firstMessage = uploaded(first);
+        final var secondMessage = uploaded(second);
+        when(channel.createMessage(any())).thenReturn(Mono.just(firstMessage), Mono.just(secondMessage));
+
+        StepVerifier.create(registry.url("icon", "icon.png", content(Mono.just(new byte[] {1}))))
+                .expectNext(first)
+                .verifyComplete();
+        // Less than an hour before expiry
+        clock.advance(Duration.ofMinutes(61));
+        StepVerifier.create(registry.url("icon", "icon.png", content(Mono.just(new byte[] {1}))))
+                .expectNext(second)
+                .verifyComplete();
+
+        verify(channel, times(2)).createMessage(any());
+    }
+
+    @Test
+    void resolve_uploadFails_attachesImageInstead() {
+        when(channel.createMessage(any())).thenReturn(Mono.error(new RuntimeException("403 Forbidden")));
+
+        StepVerifier.create(registry.resolve("icon", "icon.png", content(Mono.just(new byte[] {1}))))
+                .assertNext(resolved -> {
+                    assertEquals("attachment://icon.png", resolved.url());
+                    assertNotNull(resolved.file());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void url_afterFailedUpload_doesNotUploadAgainWithinBackoff() {
+        when(channel.createMessage(any())).thenReturn(Mono.error(new RuntimeException("403 Forbidden")));
+
+        StepVerifier.create(registry.url("icon", "icon.png", content(Mono.just(new byte[] {1}))))
+                .verifyComplete();
+        clock.advance(AttachmentRegistry.MIN_FAILURE_BACKOFF.minusSeconds(1));
+        StepVerifier.create(registry.url("icon", "icon.png", content(Mono.just(new byte[] {1}))))
+                .verifyComplete();
+        StepVerifier.create(registry.url("other", "other.png", content(Mono.just(new byte[] {2}))))
+                .verifyComplete();
+
+        verify(channel, times(1)).createMessage(any());
+    }
+
+    @Test
+    void url_afterBackoff_uploadsAgain() {
+        final var url = cdnUrl(NOW.plus(Duration.ofHours(24)));
+        final var message = uploaded(url);
+        when(channel.createMessage(any())).thenReturn(Mono.error(new RuntimeException("503 Service Unavailable")),
+                Mono.just(message));
+
+        StepVerifier.create(registry.url("icon", "icon.png", content(Mono.just(new byte[] {1}))))
+                .verifyComplete();
+        clock.advance(AttachmentRegistry.MIN_FAILURE_BACKOFF);
+        StepVerifier.create(registry.url("icon", "icon.png", content(Mono.just(new byte[] {1}))))
+                .expectNext(url)
+                .verifyComplete();
+
+        verify(channel, times(2)).createMessage(any());
+    }
+
+    @Test
+    void resolve_contentFails_propagatesErrorWithoutRetrying() {
+        StepVerifier.create(registry.resolve("icon", "icon.png", content(Mono.error(new RenderBusyException()))))
+                .verifyError(RenderBusyException.class);
+
+        verify(channel, never()).createMessage(any());
+        assertEquals(1, contentCalls.get());
+    }
+
+    @Test
+    void url_noAssetChannel_isEmpty() {
+        StepVerifier.create(new AttachmentRegistry(null).url("icon", "icon.png",
+                        content(Mono.just(new byte[] {1}))))
+                .verifyComplete();
+        assertEquals(0, contentCalls.get());
+    }
+}
@@ -0,0 +1,56 @@
+package ultimategdbot.service;
+
+import jdash.client.GDClient;
+import jdash.client.request.GDRequests;
+import jdash.client.request.GDRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ultimategdbot.GDResponses;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CoalescingGDRouterTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private GDClient client;
+
+    @BeforeEach
+    void setUp() {
+        GDRouter router = request -> switch (request.getUri()) {
+            case GDRequests.GET_GJ_USER_INFO_20 -> Mono.delay(Duration.ofMillis(200))
+                    .doOnSubscribe(__ -> upstreamCalls.incrementAndGet())
+                    .thenReturn(GDResponses.GET_USER_PROFILE);
+            default -> Mono.error(new RuntimeException("Unexpected request: " + request.getUri()));
+        };
+        client = GDClient.create().withRouter(new CoalescingGDRouter(router));
+    }
+
+    @Test
+    void send_concurrentIdenticalRequests_sharesUpstreamCall() {
+        StepVerifier.create(Mono.zip(client.getUserProfile(98006), client.getUserProfile(98006)))
+                .assertNext(t -> assertEquals(t.getT1(), t.getT2()))
+                .verifyComplete();
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void send_differentParameters_doesNotShareUpstreamCall() {
+        StepVerifier.create(Mono.zip(client.getUserProfile(98006), client.getUserProfile(4063664)))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void send_sequentialIdenticalRequests_doesNotReuseCompletedCall() {
+        StepVerifier.create(client.getUserProfile(98006).then(client.getUserProfile(98006)))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(2, upstreamCalls.get());
+    }
+}
@@ -94,7 +94,7 @@ class GDLevelServiceTest {
     }
 
     private GDLevelService serviceWithRouter(GDRouter router) {
-        return new GDLevelService(emojiService, GDClient.create().withRouter(router));
+        return new GDLevelService(emojiService, GDClient.create().withRouter(router), new AttachmentRegistry(null));
     }
 
     @Test
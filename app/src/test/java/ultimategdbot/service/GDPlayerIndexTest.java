@@ -0,0 +1,155 @@
+package ultimategdbot.service;
+
+import jdash.client.GDClient;
+import jdash.client.request.GDRequests;
+import jdash.client.request.GDRouter;
+import jdash.common.entity.GDUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ultimategdbot.GDResponses;
+import ultimategdbot.database.GdPlayer;
+import ultimategdbot.database.GdPlayerDao;
+import ultimategdbot.database.ImmutableGdPlayer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GDPlayerIndexTest {
+
+    private static final long PLAYER_ID = 4063664;
+    private static final long ACCOUNT_ID = 98006;
+
+    @Mock
+    GdPlayerDao gdPlayerDao;
+
+    private final AtomicInteger gdRequests = new AtomicInteger();
+    private GDClient gdClient;
+
+    private static GdPlayer player(long accountId) {
+        return ImmutableGdPlayer.builder()
+                .playerId(PLAYER_ID)
+                .accountId(accountId)
+                .name("Alex1304")
+                .build();
+    }
+
+    private GDUser user(long accountId) {
+        return gdClient.withRouter(request -> Mono.just(GDResponses.GET_USER_PROFILE
+                        .replace(":16:" + ACCOUNT_ID + ":", ":16:" + accountId + ":")))
+                .getUserProfile(accountId)
+                .blockOptional()
+                .orElseThrow()
+                .user();
+    }
+
+    private GDPlayerIndex index(int writeBatchSize) {
+        return new GDPlayerIndex(gdPlayerDao, gdClient, writeBatchSize, Duration.ofMillis(100));
+    }
+
+    @BeforeEach
+    void setUp() {
+        GDRouter router = request -> switch (request.getUri()) {
+            case GDRequests.GET_GJ_USERS_20 -> Mono.fromCallable(() -> {
+                gdRequests.incrementAndGet();
+                return GDResponses.SEARCH_USERS;
+            });
+            default -> Mono.error(new RuntimeException("Unexpected request: " + request.getUri()));
+        };
+        gdClient = GDClient.create().withRouter(router);
+    }
+
+    @Test
+    void accountIdOf_recordedPlayer_isResolvedFromMemory() {
+        when(gdPlayerDao.saveAll(any())).thenReturn(Mono.empty());
+        final var index = index(1);
+        index.record(user(ACCOUNT_ID));
+        verify(gdPlayerDao, timeout(1000)).saveAll(List.of(player(ACCOUNT_ID)));
+
+        StepVerifier.create(index.accountIdOf(PLAYER_ID))
+                .expectNext(ACCOUNT_ID)
+                .verifyComplete();
+        verify(gdPlayerDao, never()).get(anyLong());
+        assertEquals(0, gdRequests.get());
+    }
+
+    @Test
+    void accountIdOf_playerInDatabase_isResolvedWithoutGDRequestAndCached() {
+        when(gdPlayerDao.get(PLAYER_ID)).thenReturn(Mono.just(player(ACCOUNT_ID)));
+        final var index = index(1);
+
+        StepVerifier.create(index.accountIdOf(PLAYER_ID))
+                .expectNext(ACCOUNT_ID)
+                .verifyComplete();
+        StepVerifier.create(index.accountIdOf(PLAYER_ID))
+                .expectNext(ACCOUNT_ID)
+                .verifyComplete();
+        verify(gdPlayerDao, times(1)).get(PLAYER_ID);
+        assertEquals(0, gdRequests.get());
+    }
+
+    @Test
+    void accountIdOf_unknownPlayer_searchesGDAfterDatabaseAndRecordsPlayer() {
+        when(gdPlayerDao.get(PLAYER_ID)).thenReturn(Mono.empty());
+        when(gdPlayerDao.saveAll(any())).thenReturn(Mono.empty());
+        final var index = index(1);
+
+        StepVerifier.create(index.accountIdOf(PLAYER_ID))
+                .expectNext(ACCOUNT_ID)
+                .verifyComplete();
+        verify(gdPlayerDao).get(PLAYER_ID);
+        assertEquals(1, gdRequests.get());
+        verify(gdPlayerDao, timeout(1000)).saveAll(List.of(player(ACCOUNT_ID)));
+    }
+
+    @Test
+    void record_alreadyKnownPlayer_isNotWrittenAgain() {
+        when(gdPlayerDao.saveAll(any())).thenReturn(Mono.empty());
+        final var index = index(1);
+        index.record(user(ACCOUNT_ID));
+        verify(gdPlayerDao, timeout(1000)).saveAll(any());
+
+        index.record(user(ACCOUNT_ID));
+
+        verify(gdPlayerDao, after(300).times(1)).saveAll(any());
+    }
+
+    @Test
+    void record_failedWrite_isWrittenAgainOnNextRecord() {
+        when(gdPlayerDao.saveAll(any())).thenReturn(Mono.error(new RuntimeException("Database unavailable")),
+                Mono.empty());
+        final var index = index(1);
+        index.record(user(ACCOUNT_ID));
+        verify(gdPlayerDao, timeout(1000)).saveAll(any());
+
+        index.record(user(ACCOUNT_ID));
+
+        verify(gdPlayerDao, timeout(1000).times(2)).saveAll(List.of(player(ACCOUNT_ID)));
+    }
+
+    @Test
+    void record_samePlayerTwiceInBatch_writesLatestAccountOnce() {
+        when(gdPlayerDao.saveAll(any())).thenReturn(Mono.empty());
+        final var index = index(10);
+        index.record(user(ACCOUNT_ID));
+        index.record(user(ACCOUNT_ID));
+        index.record(user(ACCOUNT_ID + 1));
+
+        verify(gdPlayerDao, timeout(1000)).saveAll(List.of(player(ACCOUNT_ID + 1)));
+        verify(gdPlayerDao, after(300).times(1)).saveAll(any());
+        StepVerifier.create(index.accountIdOf(PLAYER_ID))
+                .expectNext(ACCOUNT_ID + 1)
+                .verifyComplete();
+    }
+}
@@ -10,22 +10,17 @@ import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import ultimategdbot.GDResponses;
 
 import java.util.Locale;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 import static ultimategdbot.service.GDUserService.generateAlphanumericToken;
 
 class GDUserServiceTest {
 
-    // Taken from jdash test resources
-    private static final String SEARCH_USERS_RESPONSE =
-            "1:Alex1304:2:4063664:13:100:17:545:6::9:29:52:0:10:12:11:9:14:0:15:2:16:98006:3:3411:8:21:4:23#999:0:10";
-    private static final String GET_USER_PROFILE_RESPONSE =
-            "1:Alex1304:2:4063664:13:100:17:818:10:12:11:9:51:9:3:5658:52:0:46:19336:4:46:8:21:18:0:19:0:50:0:20:" +
-                    "UC0hFAVN-GAbZYuf_Hfk1Iog:21:29:22:7:23:30:24:3:25:24:26:21:28:1:43:15:48:15:53:22:54:1:30:33266:" +
-                    "16:98006:31:0:44:gd_alex1304:45:gd_alex1304:49:1:38:0:39:0:40:0:29:1";
     private static final Set<Character> VALID_CHARS = Set.of(
             '2', '3', '4', '5', '6', '7', '8', '9',
             'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'J', 'K', 'L', 'M', 'N', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W',
@@ -39,11 +34,12 @@ class GDUserServiceTest {
     @BeforeEach
     void setUp() {
         GDRouter router = request -> switch (request.getUri()) {
-            case GDRequests.GET_GJ_USERS_20 -> Mono.just(SEARCH_USERS_RESPONSE);
-            case GDRequests.GET_GJ_USER_INFO_20 -> Mono.just(GET_USER_PROFILE_RESPONSE);
+            case GDRequests.GET_GJ_USERS_20 -> Mono.just(GDResponses.SEARCH_USERS);
+            case GDRequests.GET_GJ_USER_INFO_20 -> Mono.just(GDResponses.GET_USER_PROFILE);
             default -> Mono.error(new RuntimeException("Unexpected request: " + request.getUri()));
         };
-        service = new GDUserService(null, null, null, GDClient.create().withRouter(router), null);
+        service = new GDUserService(null, null, null, GDClient.create().withRouter(router), null,
+                mock(GDPlayerIndex.class));
     }
 
     @Test
@@ -68,7 +64,8 @@ class GDUserServiceTest {
         // accountId = 0 means unregistered account — should be filtered out
         GDRouter router = request -> Mono.just(
                 "1:UnregisteredUser:2:12345:13:0:17:0:6::9:0:52:0:10:0:11:0:14:0:15:0:16:0:3:0:8:0:4:0#1:0:0");
-        service = new GDUserService(null, null, null, GDClient.create().withRouter(router), null);
+        service = new GDUserService(null, null, null, GDClient.create().withRouter(router), null,
+                mock(GDPlayerIndex.class));
 
         StepVerifier.create(service.stringToUser(translator, "UnregisteredUser"))
                 .verifyComplete();
@@ -101,7 +98,8 @@ class GDUserServiceTest {
     void stringToUser_gdApiError_propagatesError() {
         var expectedException = new RuntimeException("GD server unreachable");
         GDRouter router = request -> Mono.error(expectedException);
-        service = new GDUserService(null, null, null, GDClient.create().withRouter(router), null);
+        service = new GDUserService(null, null, null, GDClient.create().withRouter(router), null,
+                mock(GDPlayerIndex.class));
 
         StepVerifier.create(service.stringToUser(translator, "Alex1304"))
                 .expectErrorMatches(e -> e.getCause() == expectedException)
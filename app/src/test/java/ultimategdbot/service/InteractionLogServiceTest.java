@@ -0,0 +1,111 @@
+package ultimategdbot.service;
+
+import botrino.api.config.ConfigContainer;
+import discord4j.discordjson.Id;
+import discord4j.discordjson.json.UserData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import ultimategdbot.config.ImmutableInteractionLogging;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.database.ImmutableInteractionLog;
+import ultimategdbot.database.InteractionLog;
+import ultimategdbot.database.InteractionLogDao;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InteractionLogServiceTest {
+
+    private static final UserData USER = mock(UserData.class);
+
+    @Mock
+    InteractionLogDao interactionLogDao;
+    @Captor
+    ArgumentCaptor<List<InteractionLog>> batch;
+
+    private static InteractionLog log(long id) {
+        return ImmutableInteractionLog.builder()
+                .id(Id.of(id))
+                .date(Instant.EPOCH)
+                .userLocale("en-US")
+                .user(USER)
+                .channelId(Id.of(1))
+                .build();
+    }
+
+    private static void awaitCount(long expected, LongSupplier count) throws InterruptedException {
+        final var deadline = System.nanoTime() + 5_000_000_000L;
+        while (count.getAsLong() != expected) {
+            if (System.nanoTime() > deadline) {
+                fail("Expected " + expected + " but was " + count.getAsLong());
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private InteractionLogService service(int batchSize, int flushIntervalSeconds) {
+        final var config = mock(UltimateGDBotConfig.class);
+        when(config.interactionLogging()).thenReturn(ImmutableInteractionLogging.builder()
+                .batchSize(batchSize)
+                .flushIntervalSeconds(flushIntervalSeconds)
+                .build());
+        final var configContainer = mock(ConfigContainer.class);
+        when(configContainer.get(UltimateGDBotConfig.class)).thenReturn(config);
+        return new InteractionLogService(interactionLogDao, configContainer);
+    }
+
+    @Test
+    void log_fullBatch_isWrittenInOneInsertWithoutWaitingForInterval() throws InterruptedException {
+        when(interactionLogDao.saveAll(any())).thenReturn(Mono.empty());
+        final var service = service(3, 60);
+        for (var i = 1; i <= 7; i++) {
+            service.log(log(i));
+        }
+
+        verify(interactionLogDao, timeout(1000).times(2)).saveAll(batch.capture());
+        // The last log waits for the next batch
+        assertEquals(List.of(List.of(log(1), log(2), log(3)), List.of(log(4), log(5), log(6))),
+                batch.getAllValues());
+        awaitCount(6, service::loggedCount);
+    }
+
+    @Test
+    void log_partialBatch_isWrittenAfterFlushInterval() throws InterruptedException {
+        when(interactionLogDao.saveAll(any())).thenReturn(Mono.empty());
+        final var service = service(100, 1);
+        service.log(log(1));
+        service.log(log(2));
+
+        verify(interactionLogDao, after(300).never()).saveAll(any());
+        verify(interactionLogDao, timeout(2000)).saveAll(batch.capture());
+        assertEquals(List.of(log(1), log(2)), batch.getValue());
+        awaitCount(2, service::loggedCount);
+    }
+
+    @Test
+    void log_afterFailedBatch_nextBatchesAreStillWritten() throws InterruptedException {
+        when(interactionLogDao.saveAll(any())).thenReturn(Mono.error(new RuntimeException("Database unavailable")),
+                Mono.empty());
+        final var service = service(2, 60);
+        for (var i = 1; i <= 6; i++) {
+            service.log(log(i));
+        }
+
+        verify(interactionLogDao, timeout(1000).times(3)).saveAll(any());
+        awaitCount(2, service::failedCount);
+        awaitCount(4, service::loggedCount);
+        assertEquals(0, service.droppedCount());
+    }
+}
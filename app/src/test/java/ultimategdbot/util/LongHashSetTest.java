@@ -0,0 +1,102 @@
+package ultimategdbot.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void of_emptyCollection_containsNothing() {
+        final var set = LongHashSet.of(List.of());
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(1));
+        assertEquals(Set.of(), set.toSet());
+    }
+
+    @Test
+    void contains_zero_isOnlyTrueWhenAdded() {
+        final var withoutZero = LongHashSet.of(List.of(1L, 2L));
+        assertFalse(withoutZero.contains(0));
+
+        final var withZero = withoutZero.with(0);
+        assertTrue(withZero.contains(0));
+        assertTrue(withZero.contains(1));
+        assertEquals(3, withZero.size());
+        assertEquals(Set.of(0L, 1L, 2L), withZero.toSet());
+
+        final var zeroRemoved = withZero.without(0);
+        assertFalse(zeroRemoved.contains(0));
+        assertEquals(2, zeroRemoved.size());
+    }
+
+    @Test
+    void of_duplicates_areCountedOnce() {
+        final var set = LongHashSet.of(List.of(5L, 5L, 0L, 0L, -7L, 5L));
+        assertEquals(3, set.size());
+        assertEquals(Set.of(5L, 0L, -7L), set.toSet());
+    }
+
+    @Test
+    void with_existingValue_returnsSameSet() {
+        final var set = LongHashSet.of(List.of(0L, 42L));
+        assertSame(set, set.with(42));
+        assertSame(set, set.with(0));
+        assertSame(set, set.without(43));
+    }
+
+    @Test
+    void with_manyValues_growsTableAndKeepsEveryValue() {
+        var set = LongHashSet.of(List.of());
+        final var expected = new HashSet<Long>();
+        // Consecutive values and values sharing their low bits collide in a small table, forcing probing and rehashing
+        for (long i = 0; i < 300; i++) {
+            for (final var value : List.of(i, i << 32, -i)) {
+                set = set.with(value);
+                expected.add(value);
+                assertEquals(expected.size(), set.size());
+            }
+        }
+        for (final var value : expected) {
+            assertTrue(set.contains(value), () -> "Missing " + value);
+        }
+        assertFalse(set.contains(300));
+        assertFalse(set.contains(300L << 32));
+        assertEquals(expected, set.toSet());
+    }
+
+    @Test
+    void contains_afterManyInserts_matchesHashSet() {
+        final var random = new Random(1304);
+        final var values = new HashSet<Long>();
+        for (var i = 0; i < 10_000; i++) {
+            // A small range makes duplicates likely
+            values.add((long) random.nextInt(20_000) - 10_000);
+        }
+        final var set = LongHashSet.of(values);
+        assertEquals(values.size(), set.size());
+        for (long value = -10_000; value < 10_000; value++) {
+            assertEquals(values.contains(value), set.contains(value), "Value " + value);
+        }
+        assertFalse(set.contains(Long.MIN_VALUE));
+        assertFalse(set.contains(Long.MAX_VALUE));
+    }
+
+    @Test
+    void without_everyValue_leavesEmptySet() {
+        final var values = List.of(0L, 1L, 2L, 3L, Long.MIN_VALUE, Long.MAX_VALUE);
+        var set = LongHashSet.of(values);
+        for (final var value : values) {
+            set = set.without(value);
+            assertFalse(set.contains(value));
+        }
+        assertEquals(0, set.size());
+        assertEquals(Set.of(), set.toSet());
+    }
+}
@@ -0,0 +1,78 @@
+package ultimategdbot.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PngEncoderTest {
+
+    private static BufferedImage image(int width, int height, int colors, long seed) {
+        final var random = new Random(seed);
+        final var palette = new int[colors];
+        for (var i = 0; i < colors; i++) {
+            // Includes translucent and fully transparent colors
+            palette[i] = random.nextInt();
+        }
+        final var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (var y = 0; y < height; y++) {
+            for (var x = 0; x < width; x++) {
+                image.setRGB(x, y, palette[random.nextInt(colors)]);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage decode(byte[] png) throws IOException {
+        final var decoded = ImageIO.read(new ByteArrayInputStream(png));
+        assertNotNull(decoded, "Not a valid PNG");
+        return decoded;
+    }
+
+    private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (var y = 0; y < expected.getHeight(); y++) {
+            for (var x = 0; x < expected.getWidth(); x++) {
+                final var argb = expected.getRGB(x, y);
+                // The color of fully transparent pixels does not matter
+                final var expectedPixel = argb >>> 24 == 0 ? 0 : argb;
+                final var actualPixel = actual.getRGB(x, y) >>> 24 == 0 ? 0 : actual.getRGB(x, y);
+                assertEquals(expectedPixel, actualPixel, "Pixel differs at " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void encode_atMost256Colors_roundTripsPixelIdentical() throws IOException {
+        final var encoder = new PngEncoder(6, true, 0);
+        for (final var colors : new int[] {2, 16, 256}) {
+            final var image = image(64, 64, colors, colors);
+            assertSamePixels(image, decode(encoder.encode(image)));
+        }
+    }
+
+    @Test
+    void encode_moreThan256ColorsWithoutPrecisionLoss_roundTripsPixelIdentical() throws IOException {
+        final var image = image(64, 64, 1000, 42);
+        assertSamePixels(image, decode(new PngEncoder(6, true, 0).encode(image)));
+    }
+
+    @Test
+    void encode_outputLargerThanInitialBuffer_producesValidPng() throws IOException {
+        final var encoder = new PngEncoder(6, false, 0);
+        // Random colors barely compress, so the output is well above 64 KB
+        final var image = image(512, 512, 1 << 16, 7);
+        final var png = encoder.encode(image);
+        assertTrue(png.length > 64 * 1024);
+        assertSamePixels(image, decode(png));
+        // The buffer is reused for the next image
+        final var small = image(16, 16, 4, 3);
+        assertSamePixels(small, decode(encoder.encode(small)));
+    }
+}
@@ -0,0 +1,123 @@
+package ultimategdbot.util;
+
+import jdash.common.entity.GDLevel;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class SearchPageCacheTest {
+
+    private static final List<GDLevel> PAGE_0 = List.of(mock(GDLevel.class), mock(GDLevel.class));
+    private static final List<GDLevel> PAGE_1 = List.of(mock(GDLevel.class));
+
+    private final Map<Integer, AtomicInteger> fetches = new ConcurrentHashMap<>();
+    private final Map<Integer, List<GDLevel>> results = new ConcurrentHashMap<>(Map.of(0, PAGE_0, 1, PAGE_1));
+
+    private Flux<GDLevel> search(int page) {
+        return Flux.defer(() -> {
+            fetches.computeIfAbsent(page, p -> new AtomicInteger()).incrementAndGet();
+            return Flux.fromIterable(results.getOrDefault(page, List.of()));
+        });
+    }
+
+    private int fetches(int page) {
+        final var count = fetches.get(page);
+        return count == null ? 0 : count.get();
+    }
+
+    private static void assertPage(List<GDLevel> expected, Flux<GDLevel> page) {
+        StepVerifier.create(page.collectList())
+                .expectNext(expected)
+                .verifyComplete();
+    }
+
+    @Test
+    void apply_samePageTwice_fetchesOnce() {
+        final var cache = new SearchPageCache(this::search, 10);
+
+        assertPage(PAGE_0, cache.apply(0));
+        assertPage(PAGE_0, cache.apply(0));
+        assertEquals(1, fetches(0));
+    }
+
+    @Test
+    void apply_afterFailedFetch_fetchesAgain() {
+        final var attempts = new AtomicInteger();
+        final var cache = new SearchPageCache(page -> attempts.incrementAndGet() == 1
+                ? Flux.error(new RuntimeException("GD server unavailable"))
+                : search(page), 10);
+
+        StepVerifier.create(cache.apply(0))
+                .verifyErrorMessage("GD server unavailable");
+        assertPage(PAGE_0, cache.apply(0));
+        assertPage(PAGE_0, cache.apply(0));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void apply_beyondMaxPages_dropsLeastRecentlyUsedPage() {
+        final var cache = new SearchPageCache(this::search, 2);
+        cache.apply(0).blockLast();
+        cache.apply(1).blockLast();
+        cache.apply(0).blockLast();
+        cache.apply(2).blockLast();
+
+        // Page 1 was the least recently used one
+        cache.apply(0).blockLast();
+        assertEquals(1, fetches(0));
+        cache.apply(1).blockLast();
+        assertEquals(2, fetches(1));
+    }
+
+    @Test
+    void prefetch_afterPreviousPageWithResults_fetchesPageOnce() {
+        final var cache = new SearchPageCache(this::search, 10);
+        cache.apply(0).blockLast();
+
+        cache.prefetch(1);
+        assertEquals(1, fetches(1));
+
+        assertPage(PAGE_1, cache.apply(1));
+        cache.prefetch(1);
+        assertEquals(1, fetches(1));
+        assertEquals(1, fetches(0));
+    }
+
+    @Test
+    void prefetch_previousPageNotFetched_fetchesNothing() {
+        final var cache = new SearchPageCache(this::search, 10);
+
+        cache.prefetch(1);
+
+        assertEquals(0, fetches(0));
+        assertEquals(0, fetches(1));
+    }
+
+    @Test
+    void prefetch_previousPageEmpty_fetchesNothing() {
+        results.remove(1);
+        final var cache = new SearchPageCache(this::search, 10);
+        cache.apply(1).blockLast();
+
+        cache.prefetch(2);
+
+        assertEquals(0, fetches(2));
+    }
+
+    @Test
+    void prefetch_firstPage_fetchesNothing() {
+        final var cache = new SearchPageCache(this::search, 10);
+
+        cache.prefetch(0);
+
+        assertEquals(0, fetches(0));
+    }
+}
@@ -0,0 +1,88 @@
+package ultimategdbot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ultimategdbot.util.LongHashSet;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lookup throughput of the blacklist cache implementations under concurrent readers. Each operation
+ * performs the three lookups done by {@code BlacklistService.isBlacklisted} (guild, user and channel).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class BlacklistLookupBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"100", "10000"})
+    public int blacklistSize;
+
+    private Set<Long> synchronizedSet;
+    private LongHashSet longHashSet;
+    private long[] probes;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BlacklistLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        final var random = new SplittableRandom(42);
+        final var ids = new HashSet<Long>();
+        while (ids.size() < blacklistSize) {
+            ids.add(random.nextLong(1L << 40, 1L << 60));
+        }
+        synchronizedSet = Collections.synchronizedSet(new HashSet<>(ids));
+        longHashSet = LongHashSet.of(ids);
+        final var idArray = ids.stream().mapToLong(Long::longValue).toArray();
+        probes = new long[PROBES];
+        for (var i = 0; i < PROBES; i++) {
+            // Most interactions come from non-blacklisted users
+            probes[i] = i % 16 == 0 ? idArray[random.nextInt(idArray.length)] : random.nextLong(1L << 40, 1L << 60);
+        }
+    }
+
+    @Benchmark
+    public boolean synchronizedHashSet(ThreadCursor cursor) {
+        final var guildId = probes[cursor.next()];
+        final var userId = probes[cursor.next()];
+        final var channelId = probes[cursor.next()];
+        return !synchronizedSet.contains(guildId)
+                && !synchronizedSet.contains(userId)
+                && !synchronizedSet.contains(channelId);
+    }
+
+    @Benchmark
+    public boolean primitiveLongHashSet(ThreadCursor cursor) {
+        final var guildId = probes[cursor.next()];
+        final var userId = probes[cursor.next()];
+        final var channelId = probes[cursor.next()];
+        return !longHashSet.contains(guildId)
+                && !longHashSet.contains(userId)
+                && !longHashSet.contains(channelId);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadCursor {
+
+        private int index;
+
+        int next() {
+            index = (index + 1) & (PROBES - 1);
+            return index;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ultimategdbot.benchmark;
+
+import botrino.api.i18n.Translator;
+import jdash.common.entity.GDLevel;
+import jdash.common.entity.GDUserProfile;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import ultimategdbot.database.GdLinkedUserDao;
+import ultimategdbot.service.AttachmentRegistry;
+import ultimategdbot.service.GDLevelService;
+import ultimategdbot.service.GDPlayerIndex;
+import ultimategdbot.service.GDUserService;
+import ultimategdbot.util.EmbedType;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the construction of the level and profile messages, including the rendering of their attachments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbedBenchmark {
+
+    private Translator tr;
+    private GDLevelService levelService;
+    private GDUserService userService;
+    private GDLevel level;
+    private GDUserProfile profile;
+
+    @Setup
+    public void setup() {
+        final var emoji = Fixtures.emojiService();
+        final var gdLinkedUserDao = mock(GdLinkedUserDao.class);
+        when(gdLinkedUserDao.getDiscordAccountsForGDUser(anyLong())).thenReturn(Flux.empty());
+        tr = Fixtures.translator();
+        levelService = new GDLevelService(emoji, Fixtures.gdClient(), new AttachmentRegistry(null));
+        userService = new GDUserService(gdLinkedUserDao, null, emoji, Fixtures.gdClient(), null,
+                mock(GDPlayerIndex.class));
+        level = Fixtures.level();
+        profile = Fixtures.userProfile();
+    }
+
+    @Benchmark
+    public Object compactEmbed() {
+        return levelService.compactEmbed(tr, level, EmbedType.RATE, null).block();
+    }
+
+    @Benchmark
+    public Object buildProfile() {
+        return userService.buildProfile(tr, profile, EmbedType.USER_PROFILE, true).block();
+    }
+}
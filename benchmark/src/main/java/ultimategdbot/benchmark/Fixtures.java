@@ -0,0 +1,133 @@
+package ultimategdbot.benchmark;
+
+import botrino.api.config.ConfigContainer;
+import botrino.api.i18n.Translator;
+import jdash.client.GDClient;
+import jdash.client.request.GDRequests;
+import jdash.client.request.GDRouter;
+import jdash.common.DemonDifficulty;
+import jdash.common.Difficulty;
+import jdash.common.Length;
+import jdash.common.QualityRating;
+import jdash.common.entity.GDLevel;
+import jdash.common.entity.GDSong;
+import jdash.common.entity.GDUserProfile;
+import reactor.core.publisher.Mono;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.service.EmojiService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Synthetic data shared by the benchmarks. Nothing here performs network or database calls.
+ */
+public final class Fixtures {
+
+    // Shared with the tests of the app module, see the resources of this module in its pom
+    private static final String GET_USER_PROFILE_RESPONSE = readResponse("getUserProfile.txt");
+
+    private Fixtures() {
+        throw new AssertionError();
+    }
+
+    private static String readResponse(String name) {
+        try (final var in = Objects.requireNonNull(Fixtures.class.getResourceAsStream("/jdash/" + name), name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).strip();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Translator translator() {
+        return Translator.to(Locale.ENGLISH);
+    }
+
+    public static EmojiService emojiService() {
+        final var emojiService = mock(EmojiService.class);
+        when(emojiService.get(anyString())).thenAnswer(invocation -> ":" + invocation.getArgument(0) + ":");
+        return emojiService;
+    }
+
+    /**
+     * A configuration with 3 rates channels (IDs 1 to 3), 2 demons channels (IDs 4 and 5), a timely channel (ID 6) and
+     * a mods channel (ID 7). DMs and crossposting are disabled.
+     *
+     * @return the config container
+     */
+    public static ConfigContainer configContainer() {
+        final var config = mock(UltimateGDBotConfig.class, RETURNS_DEEP_STUBS);
+        final var events = config.gd().events();
+        when(events.ratesChannelIds()).thenReturn(Set.of(1L, 2L, 3L));
+        when(events.demonsChannelIds()).thenReturn(Set.of(4L, 5L));
+        when(events.timelyChannelId()).thenReturn(Optional.of(6L));
+        when(events.modsChannelId()).thenReturn(Optional.of(7L));
+        when(events.dmRandomMessages()).thenReturn(Optional.empty());
+        when(events.crosspost()).thenReturn(false);
+        when(events.channelSelection()).thenReturn(UltimateGDBotConfig.GD.Events.ChannelSelection.LEAST_LOADED);
+        final var randomMessages = events.publicRandomMessages();
+        final var message = List.of("Benchmark message");
+        when(randomMessages.rates()).thenReturn(message);
+        when(randomMessages.unrates()).thenReturn(message);
+        when(randomMessages.daily()).thenReturn(message);
+        when(randomMessages.weekly()).thenReturn(message);
+        when(randomMessages.event()).thenReturn(message);
+        when(randomMessages.mod()).thenReturn(message);
+        when(randomMessages.elderMod()).thenReturn(message);
+        when(randomMessages.lbMod()).thenReturn(message);
+        when(randomMessages.unmod()).thenReturn(message);
+        when(randomMessages.elderUnmod()).thenReturn(message);
+        when(randomMessages.lbUnmod()).thenReturn(message);
+        final var configContainer = mock(ConfigContainer.class);
+        when(configContainer.get(UltimateGDBotConfig.class)).thenReturn(config);
+        return configContainer;
+    }
+
+    public static GDRouter gdRouter() {
+        return request -> switch (request.getUri()) {
+            case GDRequests.GET_GJ_USER_INFO_20 -> Mono.just(GET_USER_PROFILE_RESPONSE);
+            default -> Mono.error(new UnsupportedOperationException("Unexpected request: " + request.getUri()));
+        };
+    }
+
+    public static GDClient gdClient() {
+        return GDClient.create().withRouter(gdRouter());
+    }
+
+    public static GDUserProfile userProfile() {
+        return gdClient().getUserProfile(98006).blockOptional().orElseThrow();
+    }
+
+    public static GDLevel level() {
+        return level(10565740L, Difficulty.INSANE, DemonDifficulty.EXTREME, 10, QualityRating.EPIC, true);
+    }
+
+    public static GDLevel level(long id, Difficulty difficulty, DemonDifficulty demonDifficulty, int rewards,
+                                QualityRating qualityRating, boolean isDemon) {
+        return new GDLevel(
+                id, "Bloodbath", 503085L, "Test description",
+                difficulty, demonDifficulty,
+                rewards, 50, qualityRating,
+                26672952, 1505455, Length.XL,
+                3, true, 1, 21, 24746,
+                isDemon, false,
+                Optional.empty(), 0,
+                Optional.empty(),
+                Optional.of(GDSong.getOfficialSong(0).orElseThrow()),
+                Optional.of("Riot"),
+                Optional.of(503085L),
+                false, false
+        );
+    }
+}
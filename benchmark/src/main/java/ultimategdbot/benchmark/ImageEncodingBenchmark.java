@@ -0,0 +1,72 @@
+package ultimategdbot.benchmark;
+
+import jdash.common.entity.GDLevel;
+import jdash.graphics.DifficultyRenderer;
+import jdash.graphics.IconSetFactory;
+import org.openjdk.jmh.annotations.*;
+import ultimategdbot.util.ImageUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rendering and PNG encoding of the images attached to level and profile messages. The
+ * {@code *WithImageIO} benchmarks encode with a plain {@link ImageIO#write} call, as a baseline for
+ * {@link ultimategdbot.util.PngEncoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageEncodingBenchmark {
+
+    private GDLevel level;
+    private BufferedImage difficultyImage;
+    private BufferedImage iconSet;
+
+    @Setup
+    public void setup() {
+        level = Fixtures.level();
+        difficultyImage = DifficultyRenderer.forLevel(level).render();
+        iconSet = IconSetFactory.forUser(Fixtures.userProfile()).createIconSet();
+    }
+
+    @Benchmark
+    public BufferedImage renderDifficulty() {
+        return DifficultyRenderer.forLevel(level).render();
+    }
+
+    @Benchmark
+    public Object encodeDifficulty() {
+        return ImageUtils.imageStream(difficultyImage).block();
+    }
+
+    @Benchmark
+    public byte[] encodeDifficultyWithImageIO() throws IOException {
+        final var os = new ByteArrayOutputStream(100_000);
+        ImageIO.write(difficultyImage, "png", os);
+        return os.toByteArray();
+    }
+
+    @Benchmark
+    public BufferedImage renderIconSet() {
+        return IconSetFactory.forUser(Fixtures.userProfile()).createIconSet();
+    }
+
+    @Benchmark
+    public Object encodeIconSet() {
+        return ImageUtils.imageStream(iconSet).block();
+    }
+
+    @Benchmark
+    public byte[] encodeIconSetWithImageIO() throws IOException {
+        final var os = new ByteArrayOutputStream(100_000);
+        ImageIO.write(iconSet, "png", os);
+        return os.toByteArray();
+    }
+}
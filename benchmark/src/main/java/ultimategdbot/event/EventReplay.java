@@ -0,0 +1,208 @@
+package ultimategdbot.event;
+
+import discord4j.common.JacksonResources;
+import discord4j.core.GatewayDiscordClient;
+import discord4j.discordjson.json.MessageData;
+import discord4j.rest.RestClient;
+import discord4j.rest.service.ChannelService;
+import jdash.client.GDClient;
+import jdash.client.request.GDRouter;
+import jdash.common.DemonDifficulty;
+import jdash.common.Difficulty;
+import jdash.common.QualityRating;
+import jdash.events.object.AwardedLevelAdd;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ultimategdbot.benchmark.Fixtures;
+import ultimategdbot.config.ImmutableRateBatching;
+import ultimategdbot.config.UltimateGDBotConfig;
+import ultimategdbot.database.GdAwardedLevelDao;
+import ultimategdbot.database.GdBroadcastResultDao;
+import ultimategdbot.database.GdLinkedUserDao;
+import ultimategdbot.service.AttachmentRegistry;
+import ultimategdbot.service.DefaultTranslator;
+import ultimategdbot.service.GDLevelService;
+import ultimategdbot.service.GDPlayerIndex;
+import ultimategdbot.service.GDUserService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replays a sequence of GD events through the whole broadcast pipeline ({@link GDEventSubscriber} and
+ * {@link GDEventService}), against stubs of GD servers, Discord REST and the database that answer after a fixed
+ * latency. Reports the latency of each event, from the moment it is fired to the end of its broadcast, and the overall
+ * throughput.
+ * <p>
+ * Events are read from a recording made with the {@code record_file} setting of the bot, or generated as a synthetic
+ * rate wave. Usage:
+ * <pre>
+ * java -cp benchmarks.jar ultimategdbot.event.EventReplay [options] [recording.jsonl]
+ *   --speed=N               replay N times faster than recorded, 0 to fire all events at once (default: 1)
+ *   --synthetic=N           replay N awarded levels fired 100 ms apart instead of a recording (default: 200)
+ *   --parallelism=N         dispatch parallelism (default: 4)
+ *   --discord-latency-ms=N  latency of the Discord REST stub (default: 100)
+ *   --gd-latency-ms=N       latency of the GD servers stub (default: 300)
+ *   --batch-window-ms=N     enable rate batching with the given window, 0 to disable (default: 0)
+ * </pre>
+ * Only the data carried by the events themselves is available to the GD stub, so events that require downloading
+ * levels (such as daily level changes) are reported as failures.
+ */
+public final class EventReplay {
+
+    private static final String MESSAGE_JSON = """
+            {"id":"1","channel_id":"%d","author":{"id":"1","username":"UltimateGDBot","discriminator":"0",
+            "avatar":null},"content":"","timestamp":"2024-01-01T00:00:00.000000+00:00","edited_timestamp":null,
+            "tts":false,"mention_everyone":false,"mentions":[],"mention_roles":[],"attachments":[],"embeds":[],
+            "pinned":false,"type":0}""";
+
+    private EventReplay() {
+        throw new AssertionError();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var speed = 1.0;
+        var synthetic = 200;
+        var parallelism = 4;
+        var discordLatency = Duration.ofMillis(100);
+        var gdLatency = Duration.ofMillis(300);
+        var batchWindow = Duration.ZERO;
+        Path recording = null;
+        for (final var arg : args) {
+            final var value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--speed=")) {
+                speed = Double.parseDouble(value);
+            } else if (arg.startsWith("--synthetic=")) {
+                synthetic = Integer.parseInt(value);
+            } else if (arg.startsWith("--parallelism=")) {
+                parallelism = Integer.parseInt(value);
+            } else if (arg.startsWith("--discord-latency-ms=")) {
+                discordLatency = Duration.ofMillis(Long.parseLong(value));
+            } else if (arg.startsWith("--gd-latency-ms=")) {
+                gdLatency = Duration.ofMillis(Long.parseLong(value));
+            } else if (arg.startsWith("--batch-window-ms=")) {
+                batchWindow = Duration.ofMillis(Long.parseLong(value));
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else {
+                recording = Path.of(arg);
+            }
+        }
+        final var events = recording != null ? EventRecorder.read(recording) : syntheticWave(synthetic);
+        System.out.printf("Replaying %d events (speed: %s, parallelism: %d, Discord latency: %d ms, " +
+                        "GD latency: %d ms, batch window: %d ms)%n", events.size(), speed == 0 ? "max" : speed + "x",
+                parallelism, discordLatency.toMillis(), gdLatency.toMillis(), batchWindow.toMillis());
+        replay(events, speed, parallelism, createService(discordLatency, gdLatency, batchWindow));
+        System.exit(0);
+    }
+
+    private static List<EventRecorder.RecordedEvent> syntheticWave(int size) {
+        final var events = new ArrayList<EventRecorder.RecordedEvent>();
+        final var difficulties = List.of(Difficulty.EASY, Difficulty.NORMAL, Difficulty.HARD, Difficulty.HARDER,
+                Difficulty.INSANE, Difficulty.DEMON);
+        for (var i = 0; i < size; i++) {
+            final var difficulty = difficulties.get(i % difficulties.size());
+            events.add(new EventRecorder.RecordedEvent(i * 100L, new AwardedLevelAdd(Fixtures.level(i + 1,
+                    difficulty, DemonDifficulty.HARD, i % 10 + 1, QualityRating.FEATURED,
+                    difficulty == Difficulty.DEMON))));
+        }
+        return events;
+    }
+
+    private static GDEventService createService(Duration discordLatency, Duration gdLatency,
+                                                Duration batchWindow) {
+        final var configContainer = Fixtures.configContainer();
+        when(configContainer.get(UltimateGDBotConfig.class).gd().events().rateBatching())
+                .thenReturn(ImmutableRateBatching.builder()
+                        .enabled(!batchWindow.isZero())
+                        .windowMillis(batchWindow.toMillis())
+                        .build());
+        final GDRouter stubRouter = Fixtures.gdRouter();
+        final var gdClient = GDClient.create()
+                .withRouter(request -> Mono.delay(gdLatency).then(stubRouter.send(request)));
+        final var emoji = Fixtures.emojiService();
+
+        final var mapper = JacksonResources.create().getObjectMapper();
+        final var channelService = mock(ChannelService.class);
+        when(channelService.createMessage(anyLong(), any())).thenAnswer(invocation -> {
+            final var data = mapper.readValue(MESSAGE_JSON.formatted(invocation.<Long>getArgument(0)),
+                    MessageData.class);
+            return Mono.delay(discordLatency).thenReturn(data);
+        });
+        final var restClient = mock(RestClient.class);
+        when(restClient.getChannelService()).thenReturn(channelService);
+        final var gateway = mock(GatewayDiscordClient.class);
+        when(gateway.rest()).thenReturn(restClient);
+
+        final var gdLinkedUserDao = mock(GdLinkedUserDao.class);
+        when(gdLinkedUserDao.getDiscordAccountsForGDUser(anyLong())).thenReturn(Flux.empty());
+        final var broadcastResultDao = mock(GdBroadcastResultDao.class);
+        when(broadcastResultDao.get(anyLong())).thenReturn(Mono.empty());
+        when(broadcastResultDao.saveAll(any())).thenReturn(Mono.empty());
+        final var playerIndex = mock(GDPlayerIndex.class);
+        return new GDEventService(gdClient, new GDLevelService(emoji, gdClient, new AttachmentRegistry(null)),
+                new GDUserService(gdLinkedUserDao, null, emoji, gdClient, gateway, playerIndex), playerIndex,
+                gdLinkedUserDao, mock(GdAwardedLevelDao.class), broadcastResultDao, configContainer, gateway,
+                new DefaultTranslator(configContainer));
+    }
+
+    private static void replay(List<EventRecorder.RecordedEvent> events, double speed, int parallelism,
+                               GDEventService service) throws InterruptedException {
+        final var firedAt = Collections.synchronizedMap(new IdentityHashMap<Object, Long>());
+        final var latencies = Collections.synchronizedList(new ArrayList<Long>());
+        final var acknowledged = new AtomicLong();
+        final var subscriber = new GDEventSubscriber(service, parallelism, service.dispatchStats(), event -> {
+            final var start = firedAt.remove(event);
+            if (start != null) {
+                latencies.add(System.nanoTime() - start);
+            }
+            acknowledged.incrementAndGet();
+        }, (event, error) -> firedAt.remove(event));
+        final var origin = events.isEmpty() ? 0 : events.get(0).timestamp();
+        final var start = System.nanoTime();
+        Flux.fromIterable(events)
+                .concatMap(recorded -> {
+                    final var offset = speed == 0 ? 0 : (long) ((recorded.timestamp() - origin) * 1_000_000 / speed);
+                    final var delay = Duration.ofNanos(Math.max(0, start + offset - System.nanoTime()));
+                    return Mono.delay(delay).thenReturn(recorded.event());
+                })
+                .doOnNext(event -> firedAt.put(event, System.nanoTime()))
+                .subscribe(subscriber);
+        final var stats = service.dispatchStats();
+        while (acknowledged.get() + stats.failed() < events.size()) {
+            //noinspection BusyWait
+            Thread.sleep(50);
+        }
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        report(events.size(), stats.failed(), elapsed, new ArrayList<>(latencies));
+    }
+
+    private static void report(int total, long failed, Duration elapsed, List<Long> latencies) {
+        Collections.sort(latencies);
+        System.out.printf("Events: %d (%d failed) in %.2f s, throughput: %.2f events/s%n", total, failed,
+                elapsed.toNanos() / 1e9, total / (elapsed.toNanos() / 1e9));
+        if (latencies.isEmpty()) {
+            return;
+        }
+        final var average = latencies.stream().mapToLong(Long::longValue).average().orElse(0);
+        System.out.printf("Latency (ms): avg %.1f, p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n", average / 1e6,
+                percentile(latencies, 0.5), percentile(latencies, 0.9), percentile(latencies, 0.99),
+                latencies.get(latencies.size() - 1) / 1e6);
+    }
+
+    private static double percentile(List<Long> sortedLatencies, double percentile) {
+        final var index = (int) Math.ceil(percentile * sortedLatencies.size()) - 1;
+        return sortedLatencies.get(Math.max(0, index)) / 1e6;
+    }
+}
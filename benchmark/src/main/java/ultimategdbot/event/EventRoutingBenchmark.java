@@ -0,0 +1,64 @@
+package ultimategdbot.event;
+
+import discord4j.core.GatewayDiscordClient;
+import discord4j.rest.RestClient;
+import jdash.common.DemonDifficulty;
+import jdash.common.Difficulty;
+import jdash.common.QualityRating;
+import jdash.events.object.AwardedLevelAdd;
+import jdash.events.object.AwardedLevelRemove;
+import org.openjdk.jmh.annotations.*;
+import ultimategdbot.benchmark.Fixtures;
+import ultimategdbot.database.GdBroadcastResultDao;
+import ultimategdbot.service.AttachmentRegistry;
+import ultimategdbot.service.DefaultTranslator;
+import ultimategdbot.service.GDLevelService;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the mapping of a GD event to its definition and the selection of its target channel. Lives in the
+ * {@code ultimategdbot.event} package in order to access {@link GDEventService#route(Object)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventRoutingBenchmark {
+
+    private GDEventService gdEventService;
+    private Object[] events;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        final var configContainer = Fixtures.configContainer();
+        final var gateway = mock(GatewayDiscordClient.class);
+        when(gateway.rest()).thenReturn(mock(RestClient.class));
+        final var gdClient = Fixtures.gdClient();
+        gdEventService = new GDEventService(gdClient,
+                new GDLevelService(Fixtures.emojiService(), gdClient, new AttachmentRegistry(null)), null,
+                null, null, null, mock(GdBroadcastResultDao.class), configContainer, gateway,
+                new DefaultTranslator(configContainer));
+        events = new Object[] {
+                new AwardedLevelAdd(Fixtures.level()),
+                new AwardedLevelAdd(Fixtures.level(1, Difficulty.HARD, DemonDifficulty.HARD, 5,
+                        QualityRating.FEATURED, false)),
+                new AwardedLevelRemove(Fixtures.level(2, Difficulty.EASY, DemonDifficulty.HARD, 2,
+                        QualityRating.NONE, false)),
+                ImmutableModStatusUpdate.of(Fixtures.userProfile(), ModStatusUpdate.Type.PROMOTED_TO_MOD)
+        };
+    }
+
+    @Benchmark
+    public Object route() {
+        final var event = events[cursor];
+        cursor = (cursor + 1) % events.length;
+        return gdEventService.route(event);
+    }
+}